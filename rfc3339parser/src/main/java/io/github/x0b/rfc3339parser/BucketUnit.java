@@ -0,0 +1,17 @@
+package io.github.x0b.rfc3339parser;
+
+/**
+ * Width of a time bucket. Bucket ids count units since 1970-01-01T00:00 of the target offset,
+ * e.g. {@code DAY} bucket 0 in UTC is 1970-01-01.
+ */
+public enum BucketUnit {
+    MINUTE(1),
+    HOUR(60),
+    DAY(1440);
+
+    final int minutes;
+
+    BucketUnit(int minutes) {
+        this.minutes = minutes;
+    }
+}
@@ -0,0 +1,62 @@
+package io.github.x0b.rfc3339parser;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Splits bulk operations into contiguous chunks of the input that are processed on a
+ * {@link ForkJoinPool}, or sequentially on the calling thread if there is none.
+ */
+final class Chunks {
+
+    private static final int MIN_CHUNK = 1 << 13;
+
+    interface Body {
+        void run(int chunk);
+    }
+
+    private Chunks() {
+    }
+
+    static void forEach(ForkJoinPool pool, int chunks, final Body body) {
+        if (null == pool || chunks == 1) {
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                body.run(chunk);
+            }
+            return;
+        }
+        final RecursiveAction[] tasks = new RecursiveAction[chunks];
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            final int c = chunk;
+            tasks[chunk] = new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    body.run(c);
+                }
+            };
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(tasks);
+            }
+        });
+    }
+
+    /**
+     * @return number of chunks to split {@code length} elements into
+     */
+    static int count(int length, ForkJoinPool pool) {
+        if (null == pool) {
+            return 1;
+        }
+        return Math.max(1, Math.min(pool.getParallelism() * 4, length / MIN_CHUNK));
+    }
+
+    /**
+     * @return first index of a chunk, or {@code length} for {@code chunk == chunks}
+     */
+    static int from(int length, int chunks, int chunk) {
+        return (int) ((long) length * chunk / chunks);
+    }
+}
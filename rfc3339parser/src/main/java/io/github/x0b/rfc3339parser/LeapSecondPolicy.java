@@ -0,0 +1,22 @@
+package io.github.x0b.rfc3339parser;
+
+/**
+ * Mapping of leap seconds to a time scale without leap seconds, such as epoch milliseconds.
+ * Whichever policy is used, a {@code :60} second is only accepted if {@link LeapSeconds#current()}
+ * lists a leap second for that UTC day or does not cover that day yet.
+ */
+public enum LeapSecondPolicy {
+    /**
+     * {@code 23:59:60Z} denotes the same instant as {@code 00:00:00Z} of the next day
+     */
+    ROLL,
+    /**
+     * {@code 23:59:60Z} denotes the last representable instant of {@code 23:59:59Z}
+     */
+    CLAMP,
+    /**
+     * The leap second is spread linearly over the 24 hours from noon to noon UTC around it, so
+     * time stamps inside that window are shifted by up to one second.
+     */
+    SMEAR
+}
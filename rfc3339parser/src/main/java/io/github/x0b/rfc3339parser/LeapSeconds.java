@@ -0,0 +1,198 @@
+package io.github.x0b.rfc3339parser;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.text.ParseException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Table of positive leap seconds, stored as a bitset indexed by epoch day so that a lookup is a
+ * single array access. A day is flagged if {@code 23:59:60} UTC occurred at its end.
+ * <p>
+ * The table in use is {@link #current()}. It starts out with the built-in IERS list and can be
+ * replaced at runtime, e.g. with {@link #refresh(File)} from a {@code leap-seconds.list} file as
+ * published by the IERS or shipped by tzdata. Replacing is atomic, scans in progress keep using
+ * the table they started with.
+ *
+ * @author (c) 2018 <a href="mailto:xob@users.noreply.github.com">x0b</a>, licensed unter MIT
+ */
+public final class LeapSeconds {
+
+    private static final long NTP_TO_UNIX = 2208988800L;
+
+    /**
+     * UTC days ending with a leap second, per the IERS list
+     */
+    private static final long[] BUILT_IN_DAYS = {
+            day(1972, 6, 30), day(1972, 12, 31), day(1973, 12, 31), day(1974, 12, 31),
+            day(1975, 12, 31), day(1976, 12, 31), day(1977, 12, 31), day(1978, 12, 31),
+            day(1979, 12, 31), day(1981, 6, 30), day(1982, 6, 30), day(1983, 6, 30),
+            day(1985, 6, 30), day(1987, 12, 31), day(1989, 12, 31), day(1990, 12, 31),
+            day(1992, 6, 30), day(1993, 6, 30), day(1994, 6, 30), day(1995, 12, 31),
+            day(1997, 6, 30), day(1998, 12, 31), day(2005, 12, 31), day(2008, 12, 31),
+            day(2012, 6, 30), day(2015, 6, 30), day(2016, 12, 31)
+    };
+    private static final long BUILT_IN_EXPIRES = day(2026, 6, 28);
+
+    private static final AtomicReference<LeapSeconds> CURRENT =
+            new AtomicReference<>(new LeapSeconds(BUILT_IN_DAYS, BUILT_IN_EXPIRES));
+
+    private final long firstDay;
+    private final long[] bits;
+    private final long expiresDay;
+
+    private LeapSeconds(long[] days, long expiresDay) {
+        long first = Long.MAX_VALUE;
+        long last = Long.MIN_VALUE;
+        for (long day : days) {
+            first = Math.min(first, day);
+            last = Math.max(last, day);
+        }
+        if (days.length == 0) {
+            first = 0;
+            last = -1;
+        }
+        this.firstDay = first;
+        this.bits = new long[(int) ((last - first + 64) >>> 6)];
+        for (long day : days) {
+            long index = day - first;
+            bits[(int) (index >>> 6)] |= 1L << index;
+        }
+        this.expiresDay = expiresDay;
+    }
+
+    /**
+     * @return the table used for leap second validation
+     */
+    public static LeapSeconds current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Atomically replace the table used for leap second validation.
+     * @param table the new table
+     */
+    public static void install(LeapSeconds table) {
+        if (null == table) {
+            throw new NullPointerException("table");
+        }
+        CURRENT.set(table);
+    }
+
+    /**
+     * @return the leap seconds known to this library version
+     */
+    public static LeapSeconds builtIn() {
+        return new LeapSeconds(BUILT_IN_DAYS, BUILT_IN_EXPIRES);
+    }
+
+    /**
+     * Load a {@code leap-seconds.list} file and {@link #install(LeapSeconds)} it.
+     * @param file a file in IERS {@code leap-seconds.list} format
+     * @return the installed table
+     * @throws IOException if the file cannot be read
+     * @throws ParseException if the file is malformed, the current table is kept
+     */
+    public static LeapSeconds refresh(File file) throws IOException, ParseException {
+        LeapSeconds table;
+        try (Reader reader = new InputStreamReader(new FileInputStream(file), "US-ASCII")) {
+            table = load(reader);
+        }
+        install(table);
+        return table;
+    }
+
+    /**
+     * Parse a table in IERS {@code leap-seconds.list} format. Each data line holds the NTP
+     * timestamp at which a TAI-UTC offset takes effect followed by that offset, the expiry is
+     * read from the {@code #@} line.
+     * @param reader source of the list, not closed
+     * @return the table
+     * @throws IOException if reading fails
+     * @throws ParseException if the list is malformed, the error offset is the line number
+     */
+    public static LeapSeconds load(Reader reader) throws IOException, ParseException {
+        BufferedReader lines = new BufferedReader(reader);
+        long[] days = new long[64];
+        int count = 0;
+        long expires = Long.MIN_VALUE;
+        long lastDay = Long.MIN_VALUE;
+        long previousOffset = Long.MIN_VALUE;
+        int lineNumber = 0;
+        String line;
+        while (null != (line = lines.readLine())) {
+            lineNumber++;
+            try {
+                if (line.startsWith("#@")) {
+                    expires = Rfc3339Kernel.floorDiv(Long.parseLong(line.substring(2).trim()) - NTP_TO_UNIX, 86400L);
+                    continue;
+                }
+                int comment = line.indexOf('#');
+                String data = (comment < 0 ? line : line.substring(0, comment)).trim();
+                if (data.isEmpty()) {
+                    continue;
+                }
+                String[] fields = data.split("\\s+");
+                if (fields.length < 2) {
+                    throw new ParseException("Expected NTP time and offset: " + line, lineNumber);
+                }
+                long effectiveDay = Rfc3339Kernel.floorDiv(Long.parseLong(fields[0]) - NTP_TO_UNIX, 86400L);
+                long offset = Long.parseLong(fields[1]);
+                if (previousOffset != Long.MIN_VALUE && offset > previousOffset) {
+                    if (count == days.length) {
+                        long[] grown = new long[count * 2];
+                        System.arraycopy(days, 0, grown, 0, count);
+                        days = grown;
+                    }
+                    // the new offset applies from midnight, the leap second ended the previous day
+                    days[count++] = effectiveDay - 1;
+                }
+                previousOffset = offset;
+                lastDay = Math.max(lastDay, effectiveDay);
+            } catch (NumberFormatException e) {
+                throw new ParseException("Invalid number: " + line, lineNumber);
+            }
+        }
+        if (previousOffset == Long.MIN_VALUE) {
+            throw new ParseException("No leap second entries", lineNumber);
+        }
+        long[] result = new long[count];
+        System.arraycopy(days, 0, result, 0, count);
+        return new LeapSeconds(result, expires != Long.MIN_VALUE ? expires : lastDay);
+    }
+
+    /**
+     * @param epochDay days since 1970-01-01
+     * @return true if the UTC day ended with a leap second
+     */
+    public boolean isLeapSecondDay(long epochDay) {
+        long index = epochDay - firstDay;
+        if (index < 0 || index >= (long) bits.length << 6) {
+            return false;
+        }
+        return (bits[(int) (index >>> 6)] & (1L << index)) != 0;
+    }
+
+    /**
+     * @param epochDay days since 1970-01-01
+     * @return true if the table is authoritative for the day, i.e. the day is before expiry
+     */
+    public boolean covers(long epochDay) {
+        return epochDay < expiresDay;
+    }
+
+    /**
+     * @return first epoch day the table is no longer authoritative for
+     */
+    public long expiresEpochDay() {
+        return expiresDay;
+    }
+
+    private static long day(int year, int month, int day) {
+        return Rfc3339Kernel.epochDay(year, month, day);
+    }
+}
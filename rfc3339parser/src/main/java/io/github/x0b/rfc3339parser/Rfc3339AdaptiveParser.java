@@ -0,0 +1,243 @@
+package io.github.x0b.rfc3339parser;
+
+/**
+ * Parser for a single source of time stamps that usually produces one fixed shape, such as
+ * {@code yyyy-MM-ddTHH:mm:ss.SSSZ} or {@code yyyy-MM-ddTHH:mm:ss+02:00}. The first inputs are
+ * parsed by {@link Rfc3339Kernel} while their shape is observed. Once enough consecutive inputs
+ * share the same length, fraction digits and offset, that layout is locked in and later inputs
+ * are checked against it with fixed separator positions and a precomputed offset. Inputs that do
+ * not match fall back to the kernel; if the source keeps producing other shapes, the layout is
+ * dropped and learned again.
+ * <p>
+ * Instances hold per-source state and statistics and are not thread safe. Use one instance per
+ * source and thread.
+ *
+ * @author (c) 2018 <a href="mailto:xob@users.noreply.github.com">x0b</a>, licensed unter MIT
+ */
+public final class Rfc3339AdaptiveParser extends Rfc3339FastParser {
+
+    private final String source;
+    private final int sampleSize;
+    private final Rfc3339Kernel kernel = new Rfc3339Kernel();
+
+    private Layout layout;
+    private Layout candidate;
+    private int matching;
+    private int misses;
+
+    private long fastPathCount;
+    private long fallbackCount;
+    private long layoutChanges;
+
+    /**
+     * @param source name of the source, for diagnostics only
+     * @param sampleSize number of consecutive inputs of the same shape required to lock in a
+     *                   layout, and of consecutive mismatches to drop it again
+     */
+    public Rfc3339AdaptiveParser(String source, int sampleSize) {
+        if (sampleSize < 1) {
+            throw new IllegalArgumentException("sampleSize must be positive: " + sampleSize);
+        }
+        this.source = source;
+        this.sampleSize = sampleSize;
+    }
+
+    @Override
+    public long parseEpochMilli(CharSequence timeString) throws Rfc3339Exception {
+        long millis = scan(timeString);
+        if (millis == Long.MIN_VALUE) {
+            throw Rfc3339Parsers.invalid(timeString);
+        }
+        return millis;
+    }
+
+    /**
+     * Check a time string without affecting the learned layout or the statistics.
+     */
+    @Override
+    public boolean isValid(CharSequence timeString) {
+        if (null == timeString) {
+            return false;
+        }
+        return (null != layout && layout.parse(timeString) != Long.MIN_VALUE) || kernel.scan(timeString);
+    }
+
+    /**
+     * Counts as one parse, like {@link #parseEpochMilli(CharSequence)}. The fast path only yields
+     * milliseconds, so the fields are scanned again without counting.
+     */
+    @Override
+    Rfc3339Kernel scanFields(CharSequence timeString) throws Rfc3339Exception {
+        if (scan(timeString) == Long.MIN_VALUE || !kernel.scan(timeString)) {
+            throw Rfc3339Parsers.invalid(timeString);
+        }
+        return kernel;
+    }
+
+    /**
+     * @return epoch milliseconds or {@link Long#MIN_VALUE} if the input is invalid
+     */
+    private long scan(CharSequence timeString) {
+        if (null == timeString) {
+            return Long.MIN_VALUE;
+        }
+        if (null != layout) {
+            long millis = layout.parse(timeString);
+            if (millis != Long.MIN_VALUE) {
+                fastPathCount++;
+                misses = 0;
+                return millis;
+            }
+            fallbackCount++;
+            if (++misses >= sampleSize) {
+                layout = null;
+                candidate = null;
+                matching = 0;
+                misses = 0;
+                layoutChanges++;
+            }
+        }
+        if (!kernel.scan(timeString)) {
+            return Long.MIN_VALUE;
+        }
+        if (null == layout) {
+            observe(timeString);
+        }
+        return kernel.epochMilli();
+    }
+
+    private void observe(CharSequence timeString) {
+        if (null != candidate && candidate.matchesShape(timeString, kernel)) {
+            matching++;
+        } else {
+            candidate = new Layout(timeString, kernel);
+            matching = 1;
+        }
+        if (matching >= sampleSize) {
+            layout = candidate;
+            misses = 0;
+            layoutChanges++;
+        }
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * @return true if a fixed layout is currently in use
+     */
+    public boolean hasLayout() {
+        return null != layout;
+    }
+
+    /**
+     * @return number of inputs converted by the fixed layout
+     */
+    public long getFastPathCount() {
+        return fastPathCount;
+    }
+
+    /**
+     * @return number of inputs that did not match the fixed layout and fell back to the kernel
+     */
+    public long getFallbackCount() {
+        return fallbackCount;
+    }
+
+    /**
+     * @return number of times a layout was locked in or dropped
+     */
+    public long getLayoutChanges() {
+        return layoutChanges;
+    }
+
+    @Override
+    public String toString() {
+        return "Rfc3339AdaptiveParser{source=" + source
+                + ", layout=" + layout
+                + ", fastPath=" + fastPathCount
+                + ", fallback=" + fallbackCount
+                + ", layoutChanges=" + layoutChanges + '}';
+    }
+
+    /**
+     * A fixed time string layout: exact length, fraction digits and offset suffix
+     */
+    private static final class Layout {
+        private final int length;
+        private final int fractionDigits;
+        private final String suffix;
+        private final long offsetMillis;
+
+        Layout(CharSequence timeString, Rfc3339Kernel kernel) {
+            this.length = timeString.length();
+            this.fractionDigits = kernel.fractionDigits();
+            this.suffix = timeString.subSequence(suffixStart(), length).toString();
+            this.offsetMillis = kernel.offsetMinutes() * 60000L;
+        }
+
+        private int suffixStart() {
+            return fractionDigits == 0 ? 19 : 20 + fractionDigits;
+        }
+
+        boolean matchesShape(CharSequence timeString, Rfc3339Kernel kernel) {
+            return timeString.length() == length && kernel.fractionDigits() == fractionDigits
+                    && matchesSuffix(timeString);
+        }
+
+        private boolean matchesSuffix(CharSequence timeString) {
+            int start = suffixStart();
+            for (int i = 0; i < suffix.length(); i++) {
+                if (timeString.charAt(start + i) != suffix.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @return epoch milliseconds or {@link Long#MIN_VALUE} if the input does not match
+         */
+        long parse(CharSequence timeString) {
+            if (timeString.length() != length || !matchesSuffix(timeString)) {
+                return Long.MIN_VALUE;
+            }
+            int millis = 0;
+            if (fractionDigits > 0) {
+                if (timeString.charAt(19) != '.') {
+                    return Long.MIN_VALUE;
+                }
+                for (int i = 0; i < fractionDigits; i++) {
+                    int digit = timeString.charAt(20 + i) - '0';
+                    if (digit < 0 || digit > 9) {
+                        return Long.MIN_VALUE;
+                    }
+                    if (i < 3) {
+                        millis = millis * 10 + digit;
+                    }
+                }
+                for (int i = fractionDigits; i < 3; i++) {
+                    millis *= 10;
+                }
+            }
+            long seconds = Rfc3339Parsers.localEpochSecond(timeString, false);
+            if (seconds == Long.MIN_VALUE) {
+                return Long.MIN_VALUE;
+            }
+            return seconds * 1000L + millis - offsetMillis;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder pattern = new StringBuilder("yyyy-MM-ddTHH:mm:ss");
+            if (fractionDigits > 0) {
+                pattern.append('.');
+                for (int i = 0; i < fractionDigits; i++) {
+                    pattern.append('S');
+                }
+            }
+            return pattern.append(suffix).toString();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package io.github.x0b.rfc3339parser;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Histograms of RFC 3339 time strings over minute, hour or day buckets, computed directly from
+ * the scanned fields without creating {@link java.util.Calendar} or {@link java.util.Date}
+ * instances.
+ *
+ * @author (c) 2018 <a href="mailto:xob@users.noreply.github.com">x0b</a>, licensed unter MIT
+ */
+public final class Rfc3339Buckets {
+
+    private Rfc3339Buckets() {
+    }
+
+    /**
+     * Count time strings per bucket on the calling thread.
+     * @see #histogram(CharSequence[], BucketUnit, int, long, long[], ForkJoinPool)
+     */
+    public static int histogram(CharSequence[] timeStrings, BucketUnit unit, int zoneOffsetMinutes,
+                                long firstBucket, long[] counts) {
+        return histogram(timeStrings, unit, zoneOffsetMinutes, firstBucket, counts, null);
+    }
+
+    /**
+     * Count time strings per bucket. {@code counts[i]} is incremented for every time string in
+     * bucket {@code firstBucket + i}, so histograms can be accumulated over several calls. With a
+     * pool, each worker but the first counts into its own copy of {@code counts}, so up to
+     * {@code pool.getParallelism() - 1} additional arrays of {@code counts.length} longs are
+     * allocated.
+     * @param timeStrings time strings, {@code null} elements are invalid
+     * @param unit bucket width
+     * @param zoneOffsetMinutes offset from UTC of the bucket boundaries
+     * @param firstBucket bucket id that maps to {@code counts[0]}
+     * @param counts counters to add to
+     * @param pool pool to parallelize on or {@code null} to count on the calling thread
+     * @return number of time strings that were not counted because they are invalid or outside
+     * of the range covered by {@code counts}
+     */
+    public static int histogram(final CharSequence[] timeStrings, final BucketUnit unit, final int zoneOffsetMinutes,
+                                final long firstBucket, long[] counts, ForkJoinPool pool) {
+        final int length = timeStrings.length;
+        // one chunk per worker, each chunk needs a full histogram
+        final int chunks = Math.min(Chunks.count(length, pool), null == pool ? 1 : pool.getParallelism());
+        final long[][] partial = new long[chunks][];
+        final int[] skipped = new int[chunks];
+        partial[0] = counts;
+
+        Chunks.forEach(pool, chunks, new Chunks.Body() {
+            @Override
+            public void run(int chunk) {
+                long[] local = chunk == 0 ? partial[0] : (partial[chunk] = new long[partial[0].length]);
+                Rfc3339Kernel kernel = new Rfc3339Kernel();
+                int missed = 0;
+                for (int i = Chunks.from(length, chunks, chunk), end = Chunks.from(length, chunks, chunk + 1); i < end; i++) {
+                    if (!kernel.scan(timeStrings[i])) {
+                        missed++;
+                        continue;
+                    }
+                    long slot = kernel.bucket(unit, zoneOffsetMinutes) - firstBucket;
+                    if (slot < 0 || slot >= local.length) {
+                        missed++;
+                        continue;
+                    }
+                    local[(int) slot]++;
+                }
+                skipped[chunk] = missed;
+            }
+        });
+
+        int missed = skipped[0];
+        for (int chunk = 1; chunk < chunks; chunk++) {
+            long[] local = partial[chunk];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += local[i];
+            }
+            missed += skipped[chunk];
+        }
+        return missed;
+    }
+}
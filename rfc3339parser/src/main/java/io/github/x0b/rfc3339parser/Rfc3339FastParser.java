@@ -0,0 +1,98 @@
+package io.github.x0b.rfc3339parser;
+
+import java.math.BigDecimal;
+import java.text.ParseException;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * Base of the specialized parsers created by {@link Rfc3339Parsers#builder()} and of
+ * {@link Rfc3339AdaptiveParser}. Implementations are final, so the hot path
+ * {@link #parseEpochMilli(CharSequence)} stays monomorphic at any call site that only uses one
+ * configuration. Those created by the builder are stateless and thread safe.
+ *
+ * @author (c) 2018 <a href="mailto:xob@users.noreply.github.com">x0b</a>, licensed unter MIT
+ */
+public abstract class Rfc3339FastParser implements Rfc3339Parser {
+
+    Rfc3339FastParser() {
+    }
+
+    /**
+     * Parse a time string accepted by this parser's configuration.
+     * @param timeString a time string
+     * @return milliseconds since 1970-01-01T00:00:00Z
+     * @throws Rfc3339Exception if the time string is invalid or not accepted by the configuration
+     */
+    public abstract long parseEpochMilli(CharSequence timeString) throws Rfc3339Exception;
+
+    /**
+     * @param timeString a time string, may be {@code null}
+     * @return true if the time string is valid RFC 3339 and accepted by this configuration
+     */
+    public abstract boolean isValid(CharSequence timeString);
+
+    @Override
+    public Date parse(String timeString) throws ParseException {
+        return new Date(parseEpochMilli(timeString));
+    }
+
+    /**
+     * Validate a time string against this parser's configuration and scan its fields. Used by
+     * the methods that need more than epoch milliseconds, which are not on the hot path.
+     * @return a kernel holding the fields of {@code timeString}
+     * @throws Rfc3339Exception if the time string is invalid or not accepted by the configuration
+     */
+    abstract Rfc3339Kernel scanFields(CharSequence timeString) throws Rfc3339Exception;
+
+    @Override
+    public TimeZone parseTimezone(String timeString) throws ParseException {
+        return timeZone(timeString, scanFields(timeString));
+    }
+
+    @Override
+    public Calendar parseCalendar(String timeString) throws ParseException {
+        Rfc3339Kernel kernel = scanFields(timeString);
+        Calendar calendar = Calendar.getInstance(timeZone(timeString, kernel));
+        calendar.setTimeInMillis(kernel.epochMilli());
+        return calendar;
+    }
+
+    /**
+     * Get a timestamp with nanosecond precision, further fraction digits are truncated.
+     * @param timeString a formatted time string
+     * @return a {@link BigDecimal} of epoch seconds
+     * @throws ParseException if the time string is invalid or not accepted by the configuration
+     */
+    @Override
+    public BigDecimal parsePrecise(String timeString) throws ParseException {
+        Rfc3339Kernel kernel = scanFields(timeString);
+        int nanos = kernel.nanos();
+        int scale = Math.min(kernel.fractionDigits(), 9);
+        int divisor = 1;
+        for (int i = scale; i < 9; i++) {
+            divisor *= 10;
+        }
+        // keep the scale of the input unless a leap second policy moved the value
+        BigDecimal fraction = nanos % divisor == 0
+                ? BigDecimal.valueOf(nanos / divisor, scale)
+                : BigDecimal.valueOf(nanos, 9);
+        return BigDecimal.valueOf(kernel.epochSecond()).add(fraction);
+    }
+
+    /**
+     * @return the offset of a scanned time string as time zone, mirroring
+     * {@link Rfc3339Lenient#parseTimezone(String)}
+     */
+    static TimeZone timeZone(CharSequence timeString, Rfc3339Kernel kernel) {
+        if (kernel.isZulu()) {
+            return TimeZone.getTimeZone("UTC");
+        }
+        TimeZone timeZone = TimeZone.getTimeZone("GMT" + timeString.subSequence(timeString.length() - 6, timeString.length()));
+        if (timeZone.getID().equals("GMT-00:00")) {
+            timeZone.setID("Etc/Unknown");
+        }
+        return timeZone;
+    }
+}
@@ -0,0 +1,548 @@
+package io.github.x0b.rfc3339parser;
+
+/**
+ * Allocation-free scanner for RFC 3339 {@code date-time} strings and their {@code full-date} and
+ * {@code full-time} parts. Validation of {@code date-time} matches
+ * {@link Rfc3339Strict#isValid(String)}, except that the kernel is stricter and also rejects day
+ * {@code 00}. No {@link java.util.regex.Matcher}, boxed values or intermediate strings are
+ * created. The fields of the last successful scan are kept in the instance, so a kernel is cheap
+ * to reuse but must not be shared between threads.
+ *
+ * @author (c) 2018 <a href="mailto:xob@users.noreply.github.com">x0b</a>, licensed unter MIT
+ */
+public final class Rfc3339Kernel {
+
+    static final int[] MONTH_LENGTH = {29, 31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+    /**
+     * Marks invalid input in the results of bulk operations
+     */
+    public static final long INVALID = Long.MIN_VALUE;
+
+    private static final long SECONDS_PER_DAY = 86400L;
+    private static final long NANOS_PER_SECOND = 1000000000L;
+    private static final int[] FRACTION_SCALE = {
+            100000000, 10000000, 1000000, 100000, 10000, 1000, 100, 10, 1
+    };
+
+    private int year;
+    private int month;
+    private int day;
+    private int hour;
+    private int minute;
+    private int second;
+    private int nanos;
+    private int fractionDigits;
+    private int offsetMinutes;
+    private boolean zulu;
+    private int errorOffset = -1;
+
+    private LeapSecondPolicy leapSecondPolicy;
+    private boolean adjusted;
+    private long adjustedSecond;
+    private int adjustedNanos;
+
+    /**
+     * Enable strict leap second handling for {@code date-time} scans. A {@code :60} second is
+     * then rejected unless {@link LeapSeconds#current()} lists a leap second at the end of that
+     * UTC day (or does not cover that day yet), and accepted leap seconds are mapped according to
+     * the policy. The table is only consulted for {@code :60} seconds, or for every scan with
+     * {@link LeapSecondPolicy#SMEAR}. {@code full-time} scans have no date and are not checked.
+     * @param policy a policy or {@code null} to accept {@code :60} on any day (the default)
+     */
+    public void setLeapSecondPolicy(LeapSecondPolicy policy) {
+        this.leapSecondPolicy = policy;
+    }
+
+    public LeapSecondPolicy getLeapSecondPolicy() {
+        return leapSecondPolicy;
+    }
+
+    /**
+     * Scan a complete RFC 3339 {@code date-time}.
+     * @param timeString the input, may be {@code null}
+     * @return true if the input is valid. Fields are only meaningful after a successful scan.
+     */
+    public boolean scan(CharSequence timeString) {
+        if (null == timeString) {
+            return fail(0);
+        }
+        return scan(timeString, 0, timeString.length());
+    }
+
+    /**
+     * Scan the RFC 3339 {@code date-time} located in {@code [start, end)} of {@code buffer}.
+     * @param buffer a character buffer
+     * @param start first index of the time string
+     * @param end index after the last character of the time string
+     * @return true if the range holds a valid time string
+     */
+    public boolean scan(CharSequence buffer, int start, int end) {
+        if (end - start < 20) {
+            return fail(Math.max(end - start, 0));
+        }
+        if (!scanFullDate(buffer, start, start + 10)) {
+            return false;
+        }
+        char t = buffer.charAt(start + 10);
+        if (t != 'T' && t != 't') {
+            return fail(10);
+        }
+        if (!scanFullTime(buffer, start + 11, end)) {
+            errorOffset += 11;
+            return false;
+        }
+        if (null != leapSecondPolicy && (second == 60 || leapSecondPolicy == LeapSecondPolicy.SMEAR)) {
+            return applyLeapSecondPolicy() || fail(17);
+        }
+        return true;
+    }
+
+    /**
+     * @return false if the time is a leap second that did not happen
+     */
+    private boolean applyLeapSecondPolicy() {
+        LeapSeconds table = LeapSeconds.current();
+        long rolled = rawEpochSecond();
+        if (second == 60) {
+            // a leap second is 23:59:60 UTC, so it rolls over to midnight UTC
+            long day = floorDiv(rolled, SECONDS_PER_DAY) - 1;
+            if (rolled - (day + 1) * SECONDS_PER_DAY != 0
+                    || (table.covers(day) && !table.isLeapSecondDay(day))) {
+                return false;
+            }
+            if (leapSecondPolicy == LeapSecondPolicy.CLAMP) {
+                adjust(rolled - 1, (int) NANOS_PER_SECOND - 1);
+            }
+        }
+        if (leapSecondPolicy == LeapSecondPolicy.SMEAR) {
+            smear(table, rolled);
+        }
+        return true;
+    }
+
+    /**
+     * Noon to noon UTC linear smear: the 86401 SI seconds of the window are mapped onto 86400.
+     */
+    private void smear(LeapSeconds table, long rolled) {
+        long halfDay = SECONDS_PER_DAY / 2;
+        long day = floorDiv(rolled - halfDay, SECONDS_PER_DAY);
+        if (!table.isLeapSecondDay(day)) {
+            return;
+        }
+        long windowStart = day * SECONDS_PER_DAY + halfDay;
+        long elapsed = (rolled - windowStart) * NANOS_PER_SECOND + nanos;
+        if (second != 60 && rolled >= windowStart + halfDay) {
+            // after the leap second, which rolled onto the same second as midnight
+            elapsed += NANOS_PER_SECOND;
+        }
+        long smeared = elapsed * SECONDS_PER_DAY / (SECONDS_PER_DAY + 1);
+        adjust(windowStart + smeared / NANOS_PER_SECOND, (int) (smeared % NANOS_PER_SECOND));
+    }
+
+    private void adjust(long epochSecond, int nanos) {
+        adjusted = true;
+        adjustedSecond = epochSecond;
+        adjustedNanos = nanos;
+    }
+
+    /**
+     * Scan a RFC 3339 {@code full-date} ({@code yyyy-MM-dd}) located in {@code [start, end)}
+     * of {@code buffer}. Updates {@link #year()}, {@link #month()} and {@link #day()}.
+     * @return true if the range holds a valid date
+     */
+    public boolean scanFullDate(CharSequence buffer, int start, int end) {
+        if (end - start != 10) {
+            return fail(Math.min(Math.max(end - start, 0), 10));
+        }
+        int y = digits4(buffer, start);
+        if (y < 0) return fail(0);
+        if (buffer.charAt(start + 4) != '-') return fail(4);
+        int mo = digits2(buffer, start + 5);
+        if (mo < 1 || mo > 12) return fail(5);
+        if (buffer.charAt(start + 7) != '-') return fail(7);
+        int d = digits2(buffer, start + 8);
+        if (d < 1 || d > monthLength(y, mo)) return fail(8);
+        year = y;
+        month = mo;
+        day = d;
+        errorOffset = -1;
+        return true;
+    }
+
+    /**
+     * Scan a RFC 3339 {@code full-time} ({@code HH:mm:ss[.f](Z|+HH:mm)}) located in
+     * {@code [start, end)} of {@code buffer}. Updates the time and offset fields.
+     * @return true if the range holds a valid time
+     */
+    public boolean scanFullTime(CharSequence buffer, int start, int end) {
+        if (end - start < 9) {
+            return fail(Math.max(end - start, 0));
+        }
+        int h = digits2(buffer, start);
+        if (h < 0 || h > 23) return fail(0);
+        if (buffer.charAt(start + 2) != ':') return fail(2);
+        int mi = digits2(buffer, start + 3);
+        if (mi < 0 || mi > 59) return fail(3);
+        if (buffer.charAt(start + 5) != ':') return fail(5);
+        int s = digits2(buffer, start + 6);
+        if (s < 0 || s > 60) return fail(6);
+
+        int pos = start + 8;
+        int fraction = 0;
+        int digits = 0;
+        if (buffer.charAt(pos) == '.') {
+            pos++;
+            while (pos < end) {
+                int c = buffer.charAt(pos) - '0';
+                if (c < 0 || c > 9) {
+                    break;
+                }
+                if (digits < 9) {
+                    fraction = fraction * 10 + c;
+                }
+                digits++;
+                pos++;
+            }
+            if (digits == 0 || pos == end) {
+                return fail(pos - start);
+            }
+            fraction *= FRACTION_SCALE[Math.min(digits, 9) - 1];
+        }
+
+        int offset = scanOffset(buffer, pos, end);
+        if (offset == Integer.MIN_VALUE) {
+            return fail(pos - start);
+        }
+
+        hour = h;
+        minute = mi;
+        second = s;
+        nanos = fraction;
+        fractionDigits = digits;
+        zulu = offset == Integer.MAX_VALUE;
+        offsetMinutes = zulu ? 0 : offset;
+        adjusted = false;
+        errorOffset = -1;
+        return true;
+    }
+
+    /**
+     * Parse a RFC 3339 {@code full-date}.
+     * @param date a date such as {@code 1985-04-12}
+     * @return days since 1970-01-01
+     * @throws Rfc3339Exception if the date is not valid
+     */
+    public long parseFullDate(CharSequence date) throws Rfc3339Exception {
+        if (null == date || !scanFullDate(date, 0, date.length())) {
+            throw new Rfc3339Exception("Invalid full-date: " + date, Math.max(errorOffset, 0));
+        }
+        return epochDay();
+    }
+
+    /**
+     * Parse a RFC 3339 {@code full-time}. The offset is available from {@link #offsetMinutes()}
+     * afterwards.
+     * @param time a time such as {@code 23:20:50.52Z}
+     * @return nanoseconds since local midnight, a leap second yields values of
+     * {@code 86400 * 10^9} and above
+     * @throws Rfc3339Exception if the time is not valid
+     */
+    public long parseFullTime(CharSequence time) throws Rfc3339Exception {
+        if (null == time || !scanFullTime(time, 0, time.length())) {
+            throw new Rfc3339Exception("Invalid full-time: " + time, Math.max(errorOffset, 0));
+        }
+        return nanoOfDay();
+    }
+
+    /**
+     * Bulk variant of {@link #parseFullDate(CharSequence)}, e.g. to compute partition keys.
+     * @param dates input dates, {@code null} elements are invalid
+     * @param epochDays receives the epoch day of each date or {@link #INVALID}
+     * @return number of invalid dates
+     */
+    public int parseFullDates(CharSequence[] dates, long[] epochDays) {
+        checkLength(dates.length, epochDays.length);
+        int invalid = 0;
+        for (int i = 0; i < dates.length; i++) {
+            CharSequence date = dates[i];
+            if (null != date && scanFullDate(date, 0, date.length())) {
+                epochDays[i] = epochDay();
+            } else {
+                epochDays[i] = INVALID;
+                invalid++;
+            }
+        }
+        return invalid;
+    }
+
+    /**
+     * Bulk variant of {@link #parseFullTime(CharSequence)}.
+     * @param times input times, {@code null} elements are invalid
+     * @param nanosOfDay receives the nanoseconds since local midnight of each time or
+     *                   {@link #INVALID}
+     * @param offsetMinutes receives the offset of each time, 0 if invalid
+     * @return number of invalid times
+     */
+    public int parseFullTimes(CharSequence[] times, long[] nanosOfDay, int[] offsetMinutes) {
+        checkLength(times.length, nanosOfDay.length);
+        checkLength(times.length, offsetMinutes.length);
+        int invalid = 0;
+        for (int i = 0; i < times.length; i++) {
+            CharSequence time = times[i];
+            if (null != time && scanFullTime(time, 0, time.length())) {
+                nanosOfDay[i] = nanoOfDay();
+                offsetMinutes[i] = this.offsetMinutes;
+            } else {
+                nanosOfDay[i] = INVALID;
+                offsetMinutes[i] = 0;
+                invalid++;
+            }
+        }
+        return invalid;
+    }
+
+    /**
+     * Compute the UTC bucket of a time string.
+     * @see #bucketOf(CharSequence, BucketUnit, int)
+     */
+    public long bucketOf(CharSequence timeString, BucketUnit unit) throws Rfc3339Exception {
+        return bucketOf(timeString, unit, 0);
+    }
+
+    /**
+     * Compute the bucket a time string falls into, as seen from a fixed offset. Seconds are only
+     * converted for a leap second or a value moved by the {@link LeapSecondPolicy}, so the bucket
+     * always contains {@link #epochMilli()}. Hours and minutes are only used if the offset of the
+     * time string differs from {@code zoneOffsetMinutes} in a way that affects the bucket.
+     * @param timeString a time string
+     * @param unit bucket width
+     * @param zoneOffsetMinutes offset from UTC of the bucket boundaries, e.g. 60 for local days
+     *                          in UTC+01:00
+     * @return bucket id
+     * @throws Rfc3339Exception if the time string is not valid
+     */
+    public long bucketOf(CharSequence timeString, BucketUnit unit, int zoneOffsetMinutes) throws Rfc3339Exception {
+        if (!scan(timeString)) {
+            throw new Rfc3339Exception("Invalid time String: " + timeString, errorOffset);
+        }
+        return bucket(unit, zoneOffsetMinutes);
+    }
+
+    /**
+     * Bulk variant of {@link #bucketOf(CharSequence, BucketUnit, int)}.
+     * @param timeStrings time strings, {@code null} elements are invalid
+     * @param buckets receives the bucket id of each time string or {@link #INVALID}
+     * @return number of invalid time strings
+     */
+    public int bucketsOf(CharSequence[] timeStrings, BucketUnit unit, int zoneOffsetMinutes, long[] buckets) {
+        checkLength(timeStrings.length, buckets.length);
+        int invalid = 0;
+        for (int i = 0; i < timeStrings.length; i++) {
+            if (scan(timeStrings[i])) {
+                buckets[i] = bucket(unit, zoneOffsetMinutes);
+            } else {
+                buckets[i] = INVALID;
+                invalid++;
+            }
+        }
+        return invalid;
+    }
+
+    /**
+     * @return bucket id of the last scanned date-time
+     */
+    long bucket(BucketUnit unit, int zoneOffsetMinutes) {
+        if (adjusted || second == 60) {
+            // the instant may lie in the next minute, or elsewhere within a smear window
+            return floorDiv(epochSecond() + zoneOffsetMinutes * 60L, unit.minutes * 60L);
+        }
+        // minutes to add to the local time of the time string to get the local time of the zone
+        int shift = zoneOffsetMinutes - offsetMinutes;
+        switch (unit) {
+            case DAY:
+                if (shift == 0) {
+                    return epochDay();
+                }
+                break;
+            case HOUR:
+                if (shift % 60 == 0) {
+                    return epochDay() * 24 + hour + shift / 60;
+                }
+                break;
+        }
+        long minutes = epochDay() * 1440 + hour * 60 + minute + shift;
+        return floorDiv(minutes, unit.minutes);
+    }
+
+    static long floorDiv(long x, long y) {
+        long q = x / y;
+        return (x % y != 0 && (x < 0) != (y < 0)) ? q - 1 : q;
+    }
+
+    /**
+     * @return the position of the first offending character of the last failed scan, relative to
+     * the start of the time string, or -1 if the last scan succeeded.
+     */
+    public int errorOffset() {
+        return errorOffset;
+    }
+
+    public int year() {
+        return year;
+    }
+
+    public int month() {
+        return month;
+    }
+
+    public int day() {
+        return day;
+    }
+
+    public int hour() {
+        return hour;
+    }
+
+    public int minute() {
+        return minute;
+    }
+
+    public int second() {
+        return second;
+    }
+
+    /**
+     * @return fractional seconds in nanoseconds, further digits are truncated. Reflects the
+     * {@link LeapSecondPolicy} if one is set.
+     */
+    public int nanos() {
+        return adjusted ? adjustedNanos : nanos;
+    }
+
+    /**
+     * @return number of digits in {@code time-secfrac}, 0 if there was none
+     */
+    public int fractionDigits() {
+        return fractionDigits;
+    }
+
+    /**
+     * @return the offset from UTC in minutes, 0 for {@code Z} and {@code -00:00}
+     */
+    public int offsetMinutes() {
+        return offsetMinutes;
+    }
+
+    /**
+     * @return true if the time string used {@code Z} instead of a numeric offset
+     */
+    public boolean isZulu() {
+        return zulu;
+    }
+
+    /**
+     * @return days since 1970-01-01 of the last scanned date
+     */
+    public long epochDay() {
+        return epochDay(year, month, day);
+    }
+
+    /**
+     * @return nanoseconds since local midnight of the last scanned time
+     */
+    public long nanoOfDay() {
+        return (hour * 3600 + minute * 60 + second) * NANOS_PER_SECOND + nanos;
+    }
+
+    /**
+     * Seconds since 1970-01-01T00:00:00Z. A leap second ({@code :60}) is treated as the first
+     * second of the following minute, unless a {@link LeapSecondPolicy} maps it differently.
+     * @return epoch seconds of the last scan
+     */
+    public long epochSecond() {
+        return adjusted ? adjustedSecond : rawEpochSecond();
+    }
+
+    /**
+     * @return epoch milliseconds of the last scan
+     */
+    public long epochMilli() {
+        return epochSecond() * 1000L + nanos() / 1000000;
+    }
+
+    private long rawEpochSecond() {
+        return epochDay() * SECONDS_PER_DAY
+                + hour * 3600 + minute * 60 + second - offsetMinutes * 60L;
+    }
+
+    /**
+     * Days since 1970-01-01 of a proleptic Gregorian date.
+     */
+    static long epochDay(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = (y >= 0 ? y : y - 399) / 400;
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    static int monthLength(int year, int month) {
+        if (month == 2 && year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) {
+            return MONTH_LENGTH[0];
+        }
+        return MONTH_LENGTH[month];
+    }
+
+    /**
+     * @return offset minutes, {@link Integer#MAX_VALUE} for Zulu or {@link Integer#MIN_VALUE} if
+     * the remaining input is not a valid {@code time-offset}
+     */
+    static int scanOffset(CharSequence buffer, int pos, int end) {
+        int remaining = end - pos;
+        char c = buffer.charAt(pos);
+        if (c == 'Z' || c == 'z') {
+            return remaining == 1 ? Integer.MAX_VALUE : Integer.MIN_VALUE;
+        }
+        if ((c != '+' && c != '-') || remaining != 6 || buffer.charAt(pos + 3) != ':') {
+            return Integer.MIN_VALUE;
+        }
+        int h = digits2(buffer, pos + 1);
+        int m = digits2(buffer, pos + 4);
+        if (h < 0 || h > 23 || m < 0 || m > 59) {
+            return Integer.MIN_VALUE;
+        }
+        int offset = h * 60 + m;
+        return c == '-' ? -offset : offset;
+    }
+
+    static int digits2(CharSequence buffer, int pos) {
+        int d1 = buffer.charAt(pos) - '0';
+        int d2 = buffer.charAt(pos + 1) - '0';
+        if (d1 < 0 || d1 > 9 || d2 < 0 || d2 > 9) {
+            return -1;
+        }
+        return d1 * 10 + d2;
+    }
+
+    static int digits4(CharSequence buffer, int pos) {
+        int high = digits2(buffer, pos);
+        int low = digits2(buffer, pos + 2);
+        if (high < 0 || low < 0) {
+            return -1;
+        }
+        return high * 100 + low;
+    }
+
+    private static void checkLength(int expected, int actual) {
+        if (actual < expected) {
+            throw new IllegalArgumentException("Output array too short: " + actual + " < " + expected);
+        }
+    }
+
+    private boolean fail(int offset) {
+        errorOffset = offset;
+        return false;
+    }
+}
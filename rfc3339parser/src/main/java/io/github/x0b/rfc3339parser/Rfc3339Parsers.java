@@ -0,0 +1,306 @@
+package io.github.x0b.rfc3339parser;
+
+/**
+ * Factory for parsers that only accept a subset of RFC 3339. Narrowing the accepted input allows
+ * fixed-layout implementations that skip most of the branching of {@link Rfc3339Strict}:
+ * <pre>
+ * Rfc3339FastParser parser = Rfc3339Parsers.builder()
+ *         .offsetStyle(Rfc3339Parsers.OffsetStyle.ZULU)
+ *         .precision(Rfc3339Parsers.Precision.MILLIS)
+ *         .build();
+ * long millis = parser.parseEpochMilli("1985-04-12T23:20:50.520Z");
+ * </pre>
+ *
+ * @author (c) 2018 <a href="mailto:xob@users.noreply.github.com">x0b</a>, licensed unter MIT
+ */
+public final class Rfc3339Parsers {
+
+    /**
+     * Accepted {@code time-secfrac}
+     */
+    public enum Precision {
+        /** no fractional seconds */
+        SECONDS,
+        /** exactly three digits of fractional seconds */
+        MILLIS,
+        /** any or no fractional seconds */
+        ANY
+    }
+
+    /**
+     * Accepted {@code time-offset}
+     */
+    public enum OffsetStyle {
+        /** only {@code Z} */
+        ZULU,
+        /** only numeric offsets such as {@code +01:30} */
+        NUMERIC,
+        /** {@code Z} and numeric offsets */
+        ANY
+    }
+
+    private Rfc3339Parsers() {
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+        private Precision precision = Precision.ANY;
+        private OffsetStyle offsetStyle = OffsetStyle.ANY;
+        private boolean caseSensitive = false;
+        private LeapSecondPolicy leapSecondPolicy;
+
+        private Builder() {
+        }
+
+        public Builder precision(Precision precision) {
+            if (null == precision) {
+                throw new NullPointerException("precision");
+            }
+            this.precision = precision;
+            return this;
+        }
+
+        public Builder offsetStyle(OffsetStyle offsetStyle) {
+            if (null == offsetStyle) {
+                throw new NullPointerException("offsetStyle");
+            }
+            this.offsetStyle = offsetStyle;
+            return this;
+        }
+
+        /**
+         * @param caseSensitive true to reject the lower case {@code t} and {@code z} permitted by
+         *                      <a href="https://tools.ietf.org/html/rfc3339#section-5.6">RFC 3339 §5.6</a>
+         */
+        public Builder caseSensitive(boolean caseSensitive) {
+            this.caseSensitive = caseSensitive;
+            return this;
+        }
+
+        /**
+         * @param leapSecondPolicy policy to validate and map leap seconds with, or {@code null}
+         *                         to accept {@code :60} on any day
+         * @see Rfc3339Kernel#setLeapSecondPolicy(LeapSecondPolicy)
+         */
+        public Builder leapSecondPolicy(LeapSecondPolicy leapSecondPolicy) {
+            this.leapSecondPolicy = leapSecondPolicy;
+            return this;
+        }
+
+        /**
+         * @return the most specialized parser for the current configuration
+         */
+        public Rfc3339FastParser build() {
+            if (offsetStyle == OffsetStyle.ZULU && null == leapSecondPolicy) {
+                if (precision == Precision.SECONDS) {
+                    return new ZuluSeconds(caseSensitive);
+                } else if (precision == Precision.MILLIS) {
+                    return new ZuluMillis(caseSensitive);
+                }
+            }
+            return new Configured(precision, offsetStyle, caseSensitive, leapSecondPolicy);
+        }
+    }
+
+    /**
+     * Validate the fixed layout {@code yyyy-MM-ddTHH:mm:ss} at the start of a time string.
+     * @return local seconds since 1970-01-01T00:00:00 or {@link Long#MIN_VALUE} if invalid
+     */
+    static long localEpochSecond(CharSequence timeString, boolean caseSensitive) {
+        int year = Rfc3339Kernel.digits4(timeString, 0);
+        int month = Rfc3339Kernel.digits2(timeString, 5);
+        int day = Rfc3339Kernel.digits2(timeString, 8);
+        int hour = Rfc3339Kernel.digits2(timeString, 11);
+        int minute = Rfc3339Kernel.digits2(timeString, 14);
+        int second = Rfc3339Kernel.digits2(timeString, 17);
+        char t = timeString.charAt(10);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || hour < 0 || hour > 23
+                || minute < 0 || minute > 59 || second < 0 || second > 60
+                || timeString.charAt(4) != '-' || timeString.charAt(7) != '-'
+                || timeString.charAt(13) != ':' || timeString.charAt(16) != ':'
+                || (t != 'T' && (caseSensitive || t != 't'))
+                || day > Rfc3339Kernel.monthLength(year, month)) {
+            return Long.MIN_VALUE;
+        }
+        return Rfc3339Kernel.epochDay(year, month, day) * 86400L + hour * 3600 + minute * 60 + second;
+    }
+
+    static boolean isZulu(char c, boolean caseSensitive) {
+        return c == 'Z' || (!caseSensitive && c == 'z');
+    }
+
+    static Rfc3339Exception invalid(CharSequence timeString) {
+        return new Rfc3339Exception("Invalid time String: " + timeString);
+    }
+
+    /**
+     * Scan the fields of a time string accepted by a fixed layout parser. Any valid input of a
+     * fixed layout is also accepted by the kernel.
+     */
+    static Rfc3339Kernel scanFixed(Rfc3339FastParser parser, CharSequence timeString) throws Rfc3339Exception {
+        Rfc3339Kernel kernel = new Rfc3339Kernel();
+        if (!parser.isValid(timeString) || !kernel.scan(timeString)) {
+            throw invalid(timeString);
+        }
+        return kernel;
+    }
+
+    /**
+     * {@code yyyy-MM-ddTHH:mm:ssZ}
+     */
+    private static final class ZuluSeconds extends Rfc3339FastParser {
+        private final boolean caseSensitive;
+
+        ZuluSeconds(boolean caseSensitive) {
+            this.caseSensitive = caseSensitive;
+        }
+
+        @Override
+        public long parseEpochMilli(CharSequence timeString) throws Rfc3339Exception {
+            long seconds = scan(timeString);
+            if (seconds == Long.MIN_VALUE) {
+                throw invalid(timeString);
+            }
+            return seconds * 1000L;
+        }
+
+        @Override
+        public boolean isValid(CharSequence timeString) {
+            return scan(timeString) != Long.MIN_VALUE;
+        }
+
+        @Override
+        Rfc3339Kernel scanFields(CharSequence timeString) throws Rfc3339Exception {
+            return scanFixed(this, timeString);
+        }
+
+        private long scan(CharSequence timeString) {
+            if (null == timeString || timeString.length() != 20 || !isZulu(timeString.charAt(19), caseSensitive)) {
+                return Long.MIN_VALUE;
+            }
+            return localEpochSecond(timeString, caseSensitive);
+        }
+    }
+
+    /**
+     * {@code yyyy-MM-ddTHH:mm:ss.SSSZ}
+     */
+    private static final class ZuluMillis extends Rfc3339FastParser {
+        private final boolean caseSensitive;
+
+        ZuluMillis(boolean caseSensitive) {
+            this.caseSensitive = caseSensitive;
+        }
+
+        @Override
+        public long parseEpochMilli(CharSequence timeString) throws Rfc3339Exception {
+            long millis = scan(timeString);
+            if (millis == Long.MIN_VALUE) {
+                throw invalid(timeString);
+            }
+            return millis;
+        }
+
+        @Override
+        public boolean isValid(CharSequence timeString) {
+            return scan(timeString) != Long.MIN_VALUE;
+        }
+
+        @Override
+        Rfc3339Kernel scanFields(CharSequence timeString) throws Rfc3339Exception {
+            return scanFixed(this, timeString);
+        }
+
+        private long scan(CharSequence timeString) {
+            if (null == timeString || timeString.length() != 24 || timeString.charAt(19) != '.'
+                    || !isZulu(timeString.charAt(23), caseSensitive)) {
+                return Long.MIN_VALUE;
+            }
+            int high = Rfc3339Kernel.digits2(timeString, 20);
+            int low = timeString.charAt(22) - '0';
+            if (high < 0 || low < 0 || low > 9) {
+                return Long.MIN_VALUE;
+            }
+            long seconds = localEpochSecond(timeString, caseSensitive);
+            if (seconds == Long.MIN_VALUE) {
+                return Long.MIN_VALUE;
+            }
+            return seconds * 1000L + high * 10 + low;
+        }
+    }
+
+    /**
+     * Any other configuration, backed by {@link Rfc3339Kernel}
+     */
+    private static final class Configured extends Rfc3339FastParser {
+        private final Precision precision;
+        private final OffsetStyle offsetStyle;
+        private final boolean caseSensitive;
+        private final ThreadLocal<Rfc3339Kernel> kernels;
+
+        Configured(Precision precision, OffsetStyle offsetStyle, boolean caseSensitive,
+                   final LeapSecondPolicy leapSecondPolicy) {
+            this.precision = precision;
+            this.offsetStyle = offsetStyle;
+            this.caseSensitive = caseSensitive;
+            this.kernels = new ThreadLocal<Rfc3339Kernel>() {
+                @Override
+                protected Rfc3339Kernel initialValue() {
+                    Rfc3339Kernel kernel = new Rfc3339Kernel();
+                    kernel.setLeapSecondPolicy(leapSecondPolicy);
+                    return kernel;
+                }
+            };
+        }
+
+        @Override
+        public long parseEpochMilli(CharSequence timeString) throws Rfc3339Exception {
+            Rfc3339Kernel kernel = kernels.get();
+            if (!accept(kernel, timeString)) {
+                throw invalid(timeString);
+            }
+            return kernel.epochMilli();
+        }
+
+        @Override
+        public boolean isValid(CharSequence timeString) {
+            return accept(kernels.get(), timeString);
+        }
+
+        @Override
+        Rfc3339Kernel scanFields(CharSequence timeString) throws Rfc3339Exception {
+            Rfc3339Kernel kernel = kernels.get();
+            if (!accept(kernel, timeString)) {
+                throw invalid(timeString);
+            }
+            return kernel;
+        }
+
+        private boolean accept(Rfc3339Kernel kernel, CharSequence timeString) {
+            if (!kernel.scan(timeString)) {
+                return false;
+            }
+            switch (precision) {
+                case SECONDS:
+                    if (kernel.fractionDigits() != 0) return false;
+                    break;
+                case MILLIS:
+                    if (kernel.fractionDigits() != 3) return false;
+                    break;
+            }
+            switch (offsetStyle) {
+                case ZULU:
+                    if (!kernel.isZulu()) return false;
+                    break;
+                case NUMERIC:
+                    if (kernel.isZulu()) return false;
+                    break;
+            }
+            return !caseSensitive || (timeString.charAt(10) == 'T'
+                    && (!kernel.isZulu() || timeString.charAt(timeString.length() - 1) == 'Z'));
+        }
+    }
+}
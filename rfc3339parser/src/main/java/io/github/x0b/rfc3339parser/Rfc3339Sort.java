@@ -0,0 +1,227 @@
+package io.github.x0b.rfc3339parser;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Sorts RFC 3339 time strings by the instant they denote. Every input is parsed exactly once
+ * into a primitive key of epoch seconds and nanoseconds, which are then ordered by a LSD radix
+ * sort. The sort is stable: equal instants keep their relative order, as do invalid entries.
+ * Histogram and scatter phases of each radix pass, as well as parsing, are split into chunks that
+ * run on a {@link ForkJoinPool} if one is supplied.
+ *
+ * @author (c) 2018 <a href="mailto:xob@users.noreply.github.com">x0b</a>, licensed unter MIT
+ */
+public final class Rfc3339Sort {
+
+    /**
+     * Placement of time strings that are not valid RFC 3339
+     */
+    public enum Invalid {
+        FIRST,
+        LAST
+    }
+
+    /**
+     * One day before 0000-01-01T00:00:00Z, so that every valid time string maps to a
+     * non-negative key below 2^40.
+     */
+    private static final long MIN_SECOND = -62167305600L;
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX = 1 << RADIX_BITS;
+    private static final int NANO_PASSES = 4;
+    private static final int SECOND_PASSES = 5;
+
+    private Rfc3339Sort() {
+    }
+
+    /**
+     * Sort time strings in place on the calling thread.
+     * @param timeStrings time strings, {@code null} elements are invalid
+     * @param invalid placement of invalid elements
+     */
+    public static <T extends CharSequence> void sort(T[] timeStrings, Invalid invalid) {
+        sort(timeStrings, invalid, null);
+    }
+
+    /**
+     * Sort time strings in place.
+     * @param timeStrings time strings, {@code null} elements are invalid
+     * @param invalid placement of invalid elements
+     * @param pool pool to parallelize on or {@code null} to sort on the calling thread
+     */
+    public static <T extends CharSequence> void sort(T[] timeStrings, Invalid invalid, ForkJoinPool pool) {
+        int[] permutation = permutation(timeStrings, invalid, pool);
+        T[] original = timeStrings.clone();
+        for (int i = 0; i < permutation.length; i++) {
+            timeStrings[i] = original[permutation[i]];
+        }
+    }
+
+    /**
+     * Compute the sorted order of time strings on the calling thread without modifying them.
+     * @see #permutation(CharSequence[], Invalid, ForkJoinPool)
+     */
+    public static int[] permutation(CharSequence[] timeStrings, Invalid invalid) {
+        return permutation(timeStrings, invalid, null);
+    }
+
+    /**
+     * Compute the sorted order of time strings without modifying them.
+     * @param timeStrings time strings, {@code null} elements are invalid
+     * @param invalid placement of invalid elements
+     * @param pool pool to parallelize on or {@code null} to sort on the calling thread
+     * @return indices into {@code timeStrings} in sorted order
+     */
+    public static int[] permutation(final CharSequence[] timeStrings, Invalid invalid, ForkJoinPool pool) {
+        final int length = timeStrings.length;
+        final long[] seconds = new long[length];
+        final long[] nanos = new long[length];
+        final int chunks = Chunks.count(length, pool);
+
+        Chunks.forEach(pool, chunks, new Chunks.Body() {
+            @Override
+            public void run(int chunk) {
+                Rfc3339Kernel kernel = new Rfc3339Kernel();
+                for (int i = Chunks.from(length, chunks, chunk), end = Chunks.from(length, chunks, chunk + 1); i < end; i++) {
+                    if (kernel.scan(timeStrings[i])) {
+                        seconds[i] = kernel.epochSecond() - MIN_SECOND;
+                        nanos[i] = kernel.nanos();
+                    } else {
+                        seconds[i] = -1;
+                    }
+                }
+            }
+        });
+
+        int valid = 0;
+        for (int i = 0; i < length; i++) {
+            if (seconds[i] >= 0) {
+                valid++;
+            }
+        }
+        int[] index = new int[valid];
+        long[] secondKeys = new long[valid];
+        long[] nanoKeys = new long[valid];
+        int[] permutation = new int[length];
+        int invalidPos = invalid == Invalid.FIRST ? 0 : valid;
+        for (int i = 0, v = 0; i < length; i++) {
+            if (seconds[i] >= 0) {
+                index[v] = i;
+                secondKeys[v] = seconds[i];
+                nanoKeys[v] = nanos[i];
+                v++;
+            } else {
+                permutation[invalidPos++] = i;
+            }
+        }
+
+        int[] sorted = radixSort(index, secondKeys, nanoKeys, pool);
+        System.arraycopy(sorted, 0, permutation, invalid == Invalid.FIRST ? length - valid : 0, valid);
+        return permutation;
+    }
+
+    private static int[] radixSort(int[] index, long[] secondKeys, long[] nanoKeys, ForkJoinPool pool) {
+        int length = index.length;
+        int chunks = Chunks.count(length, pool);
+        int[][] counts = new int[chunks][RADIX];
+        Pass pass = new Pass(pool, chunks, counts, index, new int[length]);
+
+        long[] nanoBuffer = new long[length];
+        long[] secondBuffer = new long[length];
+        for (int p = 0; p < NANO_PASSES; p++) {
+            if (pass.run(nanoKeys, nanoBuffer, secondKeys, secondBuffer, p * RADIX_BITS)) {
+                long[] swap = nanoKeys;
+                nanoKeys = nanoBuffer;
+                nanoBuffer = swap;
+                swap = secondKeys;
+                secondKeys = secondBuffer;
+                secondBuffer = swap;
+            }
+        }
+        for (int p = 0; p < SECOND_PASSES; p++) {
+            if (pass.run(secondKeys, secondBuffer, null, null, p * RADIX_BITS)) {
+                long[] swap = secondKeys;
+                secondKeys = secondBuffer;
+                secondBuffer = swap;
+            }
+        }
+        return pass.index;
+    }
+
+    /**
+     * One stable counting sort pass over 8 bits of a key, carrying the index and optionally a
+     * second key along.
+     */
+    private static final class Pass {
+        private final ForkJoinPool pool;
+        private final int chunks;
+        private final int[][] counts;
+        private int[] index;
+        private int[] indexBuffer;
+
+        Pass(ForkJoinPool pool, int chunks, int[][] counts, int[] index, int[] indexBuffer) {
+            this.pool = pool;
+            this.chunks = chunks;
+            this.counts = counts;
+            this.index = index;
+            this.indexBuffer = indexBuffer;
+        }
+
+        /**
+         * @return true if elements were moved into the buffers, false if the pass was skipped
+         * because all elements share the same digit
+         */
+        boolean run(final long[] key, final long[] keyDst, final long[] other, final long[] otherDst, final int shift) {
+            final int length = key.length;
+            final int[] src = index;
+            final int[] dst = indexBuffer;
+
+            Chunks.forEach(pool, chunks, new Chunks.Body() {
+                @Override
+                public void run(int chunk) {
+                    int[] count = counts[chunk];
+                    Arrays.fill(count, 0);
+                    for (int i = Chunks.from(length, chunks, chunk), end = Chunks.from(length, chunks, chunk + 1); i < end; i++) {
+                        count[(int) (key[i] >>> shift) & (RADIX - 1)]++;
+                    }
+                }
+            });
+
+            int position = 0;
+            for (int digit = 0; digit < RADIX; digit++) {
+                int total = 0;
+                for (int chunk = 0; chunk < chunks; chunk++) {
+                    total += counts[chunk][digit];
+                }
+                if (total == length) {
+                    return false;
+                }
+                for (int chunk = 0; chunk < chunks; chunk++) {
+                    int count = counts[chunk][digit];
+                    counts[chunk][digit] = position;
+                    position += count;
+                }
+            }
+
+            Chunks.forEach(pool, chunks, new Chunks.Body() {
+                @Override
+                public void run(int chunk) {
+                    int[] offset = counts[chunk];
+                    for (int i = Chunks.from(length, chunks, chunk), end = Chunks.from(length, chunks, chunk + 1); i < end; i++) {
+                        int target = offset[(int) (key[i] >>> shift) & (RADIX - 1)]++;
+                        keyDst[target] = key[i];
+                        dst[target] = src[i];
+                        if (null != other) {
+                            otherDst[target] = other[i];
+                        }
+                    }
+                }
+            });
+
+            index = dst;
+            indexBuffer = src;
+            return true;
+        }
+    }
+}
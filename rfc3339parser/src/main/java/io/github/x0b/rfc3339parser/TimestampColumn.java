@@ -0,0 +1,477 @@
+package io.github.x0b.rfc3339parser;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.NoSuchElementException;
+
+/**
+ * Compact, append-only column of time stamps. Each entry consists of epoch milliseconds and the
+ * offset in minutes of the original time string. Entries are grouped into blocks of
+ * {@link #BLOCK_SIZE}; inside a block timestamps are stored as zigzag varint encoded
+ * delta-of-deltas and offsets as varint encoded deltas, so a series of regularly spaced, sorted
+ * time stamps with a constant offset costs two bytes per entry. The encoded data may be kept in a
+ * direct (off-heap) {@link ByteBuffer}.
+ * <p>
+ * Minimum and maximum of each block are tracked to allow range queries to skip blocks. Reading
+ * from a column is thread safe as long as no other thread appends to it.
+ *
+ * @author (c) 2018 <a href="mailto:xob@users.noreply.github.com">x0b</a>, licensed unter MIT
+ */
+public final class TimestampColumn {
+
+    public static final int BLOCK_SIZE = 1024;
+
+    private static final int BLOCK_SHIFT = 10;
+    private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+    private static final int MAX_ENTRY_BYTES = 20;
+    private static final int MAGIC = 0x52334343;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 40;
+    /**
+     * Largest buffer that can be allocated on common VMs, block positions are {@code int}
+     */
+    static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private final boolean direct;
+    private final Rfc3339Kernel kernel = new Rfc3339Kernel();
+
+    private ByteBuffer data;
+    private int size;
+    private int[] blockPos;
+    private long[] blockMin;
+    private long[] blockMax;
+
+    private long last;
+    private long lastDelta;
+    private int lastOffset;
+
+    /**
+     * Create an empty column on the heap.
+     */
+    public TimestampColumn() {
+        this(false);
+    }
+
+    /**
+     * Create an empty column.
+     * @param direct true to store encoded data in a direct {@link ByteBuffer}
+     */
+    public TimestampColumn(boolean direct) {
+        this(direct, 4096, 4);
+    }
+
+    private TimestampColumn(boolean direct, int dataCapacity, int blockCapacity) {
+        this.direct = direct;
+        this.data = allocate(dataCapacity);
+        this.blockPos = new int[blockCapacity];
+        this.blockMin = new long[blockCapacity];
+        this.blockMax = new long[blockCapacity];
+    }
+
+    /**
+     * Parse and append a RFC 3339 time string.
+     * @param timeString a time string
+     * @throws Rfc3339Exception if the time string is not valid. The column is not modified.
+     */
+    public void append(CharSequence timeString) throws Rfc3339Exception {
+        if (!kernel.scan(timeString)) {
+            throw new Rfc3339Exception("Invalid time String: " + timeString, kernel.errorOffset());
+        }
+        append(kernel.epochMilli(), kernel.offsetMinutes());
+    }
+
+    /**
+     * Parse and append a sequence of RFC 3339 time strings.
+     * @param timeStrings time strings
+     * @throws Rfc3339Exception on the first invalid time string. All entries before it have been
+     * appended.
+     */
+    public void appendAll(Iterable<? extends CharSequence> timeStrings) throws Rfc3339Exception {
+        for (CharSequence timeString : timeStrings) {
+            append(timeString);
+        }
+    }
+
+    /**
+     * Append a time stamp.
+     * @param epochMilli milliseconds since 1970-01-01T00:00:00Z
+     * @param offsetMinutes offset of the original time string from UTC in minutes
+     * @throws IllegalStateException if the encoded data would exceed 2 GiB.
+     * The column is not modified.
+     */
+    public void append(long epochMilli, int offsetMinutes) {
+        int block = size >>> BLOCK_SHIFT;
+        ensureData(MAX_ENTRY_BYTES);
+        if ((size & BLOCK_MASK) == 0) {
+            ensureBlocks(block + 1);
+            blockPos[block] = data.position();
+            blockMin[block] = epochMilli;
+            blockMax[block] = epochMilli;
+            writeVarLong(zigzag(epochMilli));
+            writeVarLong(zigzag(offsetMinutes));
+            lastDelta = 0;
+        } else {
+            long delta = epochMilli - last;
+            writeVarLong(zigzag(delta - lastDelta));
+            writeVarLong(zigzag(offsetMinutes - lastOffset));
+            lastDelta = delta;
+            if (epochMilli < blockMin[block]) {
+                blockMin[block] = epochMilli;
+            } else if (epochMilli > blockMax[block]) {
+                blockMax[block] = epochMilli;
+            }
+        }
+        last = epochMilli;
+        lastOffset = offsetMinutes;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isDirect() {
+        return direct;
+    }
+
+    /**
+     * @return number of bytes used by the encoded entries, excluding block metadata
+     */
+    public int encodedBytes() {
+        return data.position();
+    }
+
+    public int blockCount() {
+        return (size + BLOCK_MASK) >>> BLOCK_SHIFT;
+    }
+
+    /**
+     * @param block a block index
+     * @return the smallest epoch millisecond value in the block
+     */
+    public long blockMin(int block) {
+        checkBlock(block);
+        return blockMin[block];
+    }
+
+    /**
+     * @param block a block index
+     * @return the largest epoch millisecond value in the block
+     */
+    public long blockMax(int block) {
+        checkBlock(block);
+        return blockMax[block];
+    }
+
+    /**
+     * Random access to a time stamp. Decodes at most {@link #BLOCK_SIZE} entries, use
+     * {@link #cursor()} for sequential access.
+     * @param index entry index
+     * @return epoch milliseconds of the entry
+     */
+    public long epochMilli(int index) {
+        Cursor cursor = cursor();
+        cursor.seek(index);
+        return cursor.epochMilli();
+    }
+
+    /**
+     * Random access to an offset.
+     * @param index entry index
+     * @return offset in minutes of the entry
+     */
+    public int offsetMinutes(int index) {
+        Cursor cursor = cursor();
+        cursor.seek(index);
+        return cursor.offsetMinutes();
+    }
+
+    /**
+     * Count entries within a time range, skipping blocks that are completely in or out of range.
+     * @param fromInclusive lower bound in epoch milliseconds
+     * @param toExclusive upper bound in epoch milliseconds
+     * @return number of entries {@code e} with {@code fromInclusive <= e < toExclusive}
+     */
+    public int countBetween(long fromInclusive, long toExclusive) {
+        int count = 0;
+        int blocks = blockCount();
+        Cursor cursor = cursor();
+        for (int block = 0; block < blocks; block++) {
+            if (blockMax[block] < fromInclusive || blockMin[block] >= toExclusive) {
+                continue;
+            }
+            int start = block << BLOCK_SHIFT;
+            int end = Math.min(start + BLOCK_SIZE, size);
+            if (blockMin[block] >= fromInclusive && blockMax[block] < toExclusive) {
+                count += end - start;
+                continue;
+            }
+            cursor.seek(start);
+            do {
+                long value = cursor.epochMilli();
+                if (value >= fromInclusive && value < toExclusive) {
+                    count++;
+                }
+            } while (cursor.index() + 1 < end && cursor.next());
+        }
+        return count;
+    }
+
+    /**
+     * @return a new cursor positioned before the first entry
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Write this column to a channel, e.g. a {@link java.nio.channels.FileChannel}.
+     * @param channel target channel
+     * @throws IOException if writing fails
+     */
+    public void writeTo(WritableByteChannel channel) throws IOException {
+        int blocks = blockCount();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES + blocks * 20);
+        header.putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(size)
+                .putInt(data.position())
+                .putLong(last)
+                .putLong(lastDelta)
+                .putInt(lastOffset)
+                .putInt(0);
+        for (int block = 0; block < blocks; block++) {
+            header.putInt(blockPos[block]).putLong(blockMin[block]).putLong(blockMax[block]);
+        }
+        header.flip();
+        writeFully(channel, header);
+
+        ByteBuffer encoded = data.duplicate();
+        encoded.flip();
+        writeFully(channel, encoded);
+    }
+
+    /**
+     * Read a column previously written with {@link #writeTo(WritableByteChannel)}. The column
+     * can be appended to afterwards.
+     * @param channel source channel
+     * @param direct true to store encoded data in a direct {@link ByteBuffer}
+     * @return the column
+     * @throws IOException if reading fails or the data is not a time stamp column
+     */
+    public static TimestampColumn readFrom(ReadableByteChannel channel, boolean direct) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        readFully(channel, header);
+        header.flip();
+        if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+            throw new IOException("Not a time stamp column");
+        }
+        int size = header.getInt();
+        int dataLength = header.getInt();
+        if (size < 0 || dataLength < 0) {
+            throw new IOException("Corrupt time stamp column header");
+        }
+        if (dataLength < 2L * size) {
+            // every entry takes at least two bytes
+            throw new IOException("Corrupt time stamp column header");
+        }
+        int blocks = (size + BLOCK_MASK) >>> BLOCK_SHIFT;
+
+        TimestampColumn column = new TimestampColumn(direct, Math.max(dataLength, 64), Math.max(blocks, 4));
+        column.size = size;
+        column.last = header.getLong();
+        column.lastDelta = header.getLong();
+        column.lastOffset = header.getInt();
+
+        ByteBuffer meta = ByteBuffer.allocate(blocks * 20);
+        readFully(channel, meta);
+        meta.flip();
+        long end = 0;
+        for (int block = 0; block < blocks; block++) {
+            int pos = meta.getInt();
+            int entries = Math.min(size - (block << BLOCK_SHIFT), BLOCK_SIZE);
+            if ((block == 0 ? pos != 0 : pos < end) || pos + 2L * entries > dataLength) {
+                throw new IOException("Corrupt time stamp column block " + block);
+            }
+            end = pos + 2L * entries;
+            column.blockPos[block] = pos;
+            column.blockMin[block] = meta.getLong();
+            column.blockMax[block] = meta.getLong();
+            if (column.blockMin[block] > column.blockMax[block]) {
+                throw new IOException("Corrupt time stamp column block " + block);
+            }
+        }
+
+        column.data.limit(dataLength);
+        readFully(channel, column.data);
+        column.data.limit(column.data.capacity());
+        return column;
+    }
+
+    /**
+     * Sequential reader of a column. Not thread safe.
+     */
+    public final class Cursor {
+        private int index = -1;
+        private int pos;
+        private long value;
+        private long delta;
+        private int offset;
+
+        private Cursor() {
+        }
+
+        /**
+         * Advance to the next entry.
+         * @return false if there are no further entries
+         */
+        public boolean next() {
+            int next = index + 1;
+            if (next >= size) {
+                return false;
+            }
+            if ((next & BLOCK_MASK) == 0) {
+                pos = blockPos[next >>> BLOCK_SHIFT];
+                value = unzigzag(readVarLong());
+                offset = (int) unzigzag(readVarLong());
+                delta = 0;
+            } else {
+                delta += unzigzag(readVarLong());
+                value += delta;
+                offset += (int) unzigzag(readVarLong());
+            }
+            index = next;
+            return true;
+        }
+
+        /**
+         * Position the cursor at an entry.
+         * @param target entry index
+         */
+        public void seek(int target) {
+            if (target < 0 || target >= size) {
+                throw new IndexOutOfBoundsException("Index: " + target + ", Size: " + size);
+            }
+            if (target < index || (target >>> BLOCK_SHIFT) != (index >>> BLOCK_SHIFT)) {
+                index = (target & ~BLOCK_MASK) - 1;
+            }
+            while (index < target) {
+                next();
+            }
+        }
+
+        public int index() {
+            return index;
+        }
+
+        public long epochMilli() {
+            checkPositioned();
+            return value;
+        }
+
+        public int offsetMinutes() {
+            checkPositioned();
+            return offset;
+        }
+
+        private void checkPositioned() {
+            if (index < 0) {
+                throw new NoSuchElementException();
+            }
+        }
+
+        private long readVarLong() {
+            long result = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data.get(pos++);
+                result |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return result;
+        }
+    }
+
+    private void writeVarLong(long value) {
+        while ((value & ~0x7FL) != 0) {
+            data.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        data.put((byte) value);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private ByteBuffer allocate(int capacity) {
+        return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+
+    private void ensureData(int extra) {
+        if (data.remaining() >= extra) {
+            return;
+        }
+        ByteBuffer grown = allocate(grow(data.capacity(), data.position(), extra));
+        data.flip();
+        grown.put(data);
+        data = grown;
+    }
+
+    /**
+     * @return capacity to grow a buffer of {@code capacity} to, so that {@code extra} more bytes
+     * fit after {@code position}
+     * @throws IllegalStateException if that would exceed {@link #MAX_CAPACITY}
+     */
+    static int grow(int capacity, int position, int extra) {
+        if (position > MAX_CAPACITY - extra) {
+            throw new IllegalStateException("Time stamp column exceeds " + MAX_CAPACITY + " bytes");
+        }
+        int grown = capacity > MAX_CAPACITY / 2 ? MAX_CAPACITY : capacity * 2;
+        return Math.max(grown, position + extra);
+    }
+
+    private void ensureBlocks(int blocks) {
+        if (blocks <= blockPos.length) {
+            return;
+        }
+        int capacity = Math.max(blockPos.length * 2, blocks);
+        int[] pos = new int[capacity];
+        long[] min = new long[capacity];
+        long[] max = new long[capacity];
+        System.arraycopy(blockPos, 0, pos, 0, blockPos.length);
+        System.arraycopy(blockMin, 0, min, 0, blockMin.length);
+        System.arraycopy(blockMax, 0, max, 0, blockMax.length);
+        blockPos = pos;
+        blockMin = min;
+        blockMax = max;
+    }
+
+    private void checkBlock(int block) {
+        if (block < 0 || block >= blockCount()) {
+            throw new IndexOutOfBoundsException("Block: " + block + ", Blocks: " + blockCount());
+        }
+    }
+
+    private static void writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void readFully(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Unexpected end of time stamp column");
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package io.github.x0b.rfc3339parser;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.text.ParseException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(JUnit4.class)
+public class LeapSecondsTest {
+
+    private static final String LIST = "#\tleap-seconds.list excerpt\n"
+            + "#@\t3913697700\n"
+            + "2272060800\t10\t# 1 Jan 1972\n"
+            + "2287785600\t11\t# 1 Jul 1972\n"
+            + "3692217600\t37\t# 1 Jan 2017\n";
+
+    private Rfc3339Kernel kernel;
+
+    @Before
+    public void setUp() {
+        kernel = new Rfc3339Kernel();
+        kernel.setLeapSecondPolicy(LeapSecondPolicy.ROLL);
+    }
+
+    @After
+    public void tearDown() {
+        LeapSeconds.install(LeapSeconds.builtIn());
+    }
+
+    @Test
+    public void builtIn() {
+        LeapSeconds table = LeapSeconds.builtIn();
+        assertTrue(table.isLeapSecondDay(Rfc3339Kernel.epochDay(1972, 6, 30)));
+        assertTrue(table.isLeapSecondDay(Rfc3339Kernel.epochDay(2016, 12, 31)));
+        assertFalse(table.isLeapSecondDay(Rfc3339Kernel.epochDay(2015, 12, 31)));
+        assertFalse(table.isLeapSecondDay(Rfc3339Kernel.epochDay(1971, 12, 31)));
+        assertTrue(table.covers(Rfc3339Kernel.epochDay(2025, 12, 31)));
+    }
+
+    @Test
+    public void strict() {
+        assertTrue(kernel.scan("2016-12-31T23:59:60Z"));
+        assertEquals(1483228800L, kernel.epochSecond());
+        assertTrue(kernel.scan("2017-01-01T00:59:60.5+01:00"));
+        assertFalse(kernel.scan("2015-12-31T23:59:60Z"));
+        assertEquals(17, kernel.errorOffset());
+        assertFalse(kernel.scan("2016-12-31T22:59:60Z"));
+        // unknown future leap seconds are accepted
+        assertTrue(kernel.scan("9999-12-31T23:59:60Z"));
+
+        kernel.setLeapSecondPolicy(null);
+        assertTrue(kernel.scan("2015-12-31T23:59:60Z"));
+    }
+
+    @Test
+    public void clamp() {
+        kernel.setLeapSecondPolicy(LeapSecondPolicy.CLAMP);
+        assertTrue(kernel.scan("2016-12-31T23:59:60.5Z"));
+        assertEquals(1483228799L, kernel.epochSecond());
+        assertEquals(999999999, kernel.nanos());
+        assertEquals(1483228799999L, kernel.epochMilli());
+    }
+
+    @Test
+    public void smear() {
+        kernel.setLeapSecondPolicy(LeapSecondPolicy.SMEAR);
+        // half way through the window, half of the leap second has been absorbed
+        assertTrue(kernel.scan("2016-12-31T23:59:60Z"));
+        assertEquals(1483228799L, kernel.epochSecond());
+        assertTrue(Math.abs(kernel.nanos() - 500000000) < 10000);
+
+        // the remaining half is absorbed after midnight
+        assertTrue(kernel.scan("2017-01-01T00:00:00Z"));
+        assertEquals(1483228800L, kernel.epochSecond());
+        assertTrue(Math.abs(kernel.nanos() - 500000000) < 10000);
+
+        // window boundaries are unaffected
+        assertTrue(kernel.scan("2016-12-31T12:00:00Z"));
+        assertEquals(1483185600L, kernel.epochSecond());
+        assertEquals(0, kernel.nanos());
+        assertTrue(kernel.scan("2017-01-01T12:00:00Z"));
+        assertEquals(1483272000L, kernel.epochSecond());
+        assertEquals(0, kernel.nanos());
+    }
+
+    @Test
+    public void load() throws IOException, ParseException {
+        LeapSeconds table = LeapSeconds.load(new StringReader(LIST));
+        assertTrue(table.isLeapSecondDay(Rfc3339Kernel.epochDay(1972, 6, 30)));
+        assertTrue(table.isLeapSecondDay(Rfc3339Kernel.epochDay(2016, 12, 31)));
+        assertFalse(table.isLeapSecondDay(Rfc3339Kernel.epochDay(1971, 12, 31)));
+        assertFalse(table.isLeapSecondDay(Rfc3339Kernel.epochDay(2015, 6, 30)));
+        assertEquals(Rfc3339Kernel.epochDay(2024, 1, 8), table.expiresEpochDay());
+    }
+
+    @Test(expected = ParseException.class)
+    public void loadFail() throws IOException, ParseException {
+        LeapSeconds.load(new StringReader("2272060800\n"));
+    }
+
+    @Test
+    public void refresh() throws IOException, ParseException {
+        File file = File.createTempFile("leap-seconds", ".list");
+        try {
+            FileWriter writer = new FileWriter(file);
+            try {
+                writer.write(LIST);
+            } finally {
+                writer.close();
+            }
+            assertTrue(kernel.scan("2015-06-30T23:59:60Z"));
+            LeapSeconds table = LeapSeconds.refresh(file);
+            assertSame(table, LeapSeconds.current());
+            assertFalse(kernel.scan("2015-06-30T23:59:60Z"));
+        } finally {
+            assertTrue(file.delete());
+        }
+    }
+
+    @Test
+    public void builder() throws ParseException {
+        Rfc3339FastParser parser = Rfc3339Parsers.builder()
+                .offsetStyle(Rfc3339Parsers.OffsetStyle.ZULU)
+                .precision(Rfc3339Parsers.Precision.SECONDS)
+                .leapSecondPolicy(LeapSecondPolicy.CLAMP)
+                .build();
+        assertEquals(1483228799999L, parser.parseEpochMilli("2016-12-31T23:59:60Z"));
+        assertEquals(new BigDecimal("1483228799.999999999"), parser.parsePrecise("2016-12-31T23:59:60Z"));
+        assertFalse(parser.isValid("2015-12-31T23:59:60Z"));
+
+        Rfc3339FastParser clamp = Rfc3339Parsers.builder()
+                .leapSecondPolicy(LeapSecondPolicy.CLAMP)
+                .build();
+        assertEquals(1483228799999L, clamp.parseEpochMilli("2016-12-31T23:59:60.5Z"));
+        assertEquals(new BigDecimal("1483228799.999999999"), clamp.parsePrecise("2016-12-31T23:59:60.5Z"));
+
+        Rfc3339FastParser smear = Rfc3339Parsers.builder()
+                .leapSecondPolicy(LeapSecondPolicy.SMEAR)
+                .build();
+        String timeString = "2016-12-31T23:59:60.5Z";
+        BigDecimal precise = smear.parsePrecise(timeString);
+        assertEquals(smear.parseEpochMilli(timeString), precise.movePointRight(3).longValue());
+        assertEquals(1483228800L, precise.longValue());
+    }
+}
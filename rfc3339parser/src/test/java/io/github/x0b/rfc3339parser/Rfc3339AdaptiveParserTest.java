@@ -0,0 +1,127 @@
+package io.github.x0b.rfc3339parser;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.math.BigDecimal;
+import java.text.ParseException;
+import java.util.Calendar;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(JUnit4.class)
+public class Rfc3339AdaptiveParserTest {
+
+    private Rfc3339AdaptiveParser parser;
+
+    @Before
+    public void setUp() {
+        parser = new Rfc3339AdaptiveParser("test", 3);
+    }
+
+    @Test
+    public void learnZuluMillis() throws ParseException {
+        assertEquals(482196050520L, parser.parseEpochMilli("1985-04-12T23:20:50.520Z"));
+        assertEquals(482196050521L, parser.parseEpochMilli("1985-04-12T23:20:50.521Z"));
+        assertFalse(parser.hasLayout());
+        assertEquals(482196050522L, parser.parseEpochMilli("1985-04-12T23:20:50.522Z"));
+        assertTrue(parser.hasLayout());
+        assertEquals(1, parser.getLayoutChanges());
+
+        assertEquals(851042397123L, parser.parseEpochMilli("1996-12-20T00:39:57.123Z"));
+        assertEquals(1, parser.getFastPathCount());
+
+        // other shapes still parse
+        assertEquals(851042397000L, parser.parseEpochMilli("1996-12-19T16:39:57-08:00"));
+        assertEquals(1, parser.getFallbackCount());
+        assertTrue(parser.hasLayout());
+    }
+
+    @Test
+    public void learnOffset() throws ParseException {
+        for (int i = 0; i < 3; i++) {
+            parser.parseEpochMilli("1996-12-19T16:39:57+01:30");
+        }
+        assertTrue(parser.hasLayout());
+        assertEquals(851008197000L, parser.parseEpochMilli("1996-12-19T16:39:57+01:30"));
+        assertEquals(851008198000L, parser.parseEpochMilli("1996-12-19T16:39:58+01:30"));
+        assertEquals(2, parser.getFastPathCount());
+        assertEquals(851042397000L, parser.parseEpochMilli("1996-12-19T16:39:57-08:00"));
+        assertEquals(1, parser.getFallbackCount());
+    }
+
+    @Test
+    public void relearn() throws ParseException {
+        for (int i = 0; i < 3; i++) {
+            parser.parseEpochMilli("1985-04-12T23:20:50Z");
+        }
+        for (int i = 0; i < 3; i++) {
+            parser.parseEpochMilli("1996-12-19T16:39:57.1-01:00");
+        }
+        assertFalse(parser.hasLayout());
+        assertEquals(2, parser.getLayoutChanges());
+        // the input that dropped the layout already counts as a sample
+        for (int i = 0; i < 2; i++) {
+            assertEquals(851017197100L, parser.parseEpochMilli("1996-12-19T16:39:57.1-01:00"));
+        }
+        assertTrue(parser.hasLayout());
+        assertEquals(3, parser.getLayoutChanges());
+        assertEquals(851017197100L, parser.parseEpochMilli("1996-12-19T16:39:57.1-01:00"));
+        assertEquals(1, parser.getFastPathCount());
+    }
+
+    @Test
+    public void validateOnFastPath() throws ParseException {
+        for (int i = 0; i < 3; i++) {
+            parser.parseEpochMilli("2000-02-29T00:00:00Z");
+        }
+        assertFalse(parser.isValid("2001-02-29T00:00:00Z"));
+        assertFalse(parser.isValid("2001-02-28X00:00:00Z"));
+        assertFalse(parser.isValid(null));
+        assertTrue(parser.hasLayout());
+    }
+
+    @Test
+    public void isValidWithoutSideEffects() throws ParseException {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(parser.isValid("1985-04-12T23:20:50Z"));
+        }
+        assertFalse(parser.hasLayout());
+        for (int i = 0; i < 3; i++) {
+            parser.parseEpochMilli("1985-04-12T23:20:50Z");
+        }
+        for (int i = 0; i < 5; i++) {
+            assertTrue(parser.isValid("1996-12-19T16:39:57-08:00"));
+            assertTrue(parser.isValid("1985-04-12T23:20:51Z"));
+        }
+        assertTrue(parser.hasLayout());
+        assertEquals(0, parser.getFastPathCount());
+        assertEquals(0, parser.getFallbackCount());
+        assertEquals(1, parser.getLayoutChanges());
+    }
+
+    @Test
+    public void countOncePerParse() throws ParseException {
+        for (int i = 0; i < 3; i++) {
+            parser.parseEpochMilli("1996-12-19T16:39:57.123456+01:30");
+        }
+        assertEquals(new BigDecimal("851008197.123456"), parser.parsePrecise("1996-12-19T16:39:57.123456+01:30"));
+        assertEquals(TimeZone.getTimeZone("GMT+01:30").getID(), parser.parseTimezone("1996-12-19T16:39:57.123456+01:30").getID());
+        Calendar calendar = parser.parseCalendar("1996-12-19T16:39:57.123456+01:30");
+        assertEquals(851008197123L, calendar.getTimeInMillis());
+        assertEquals(3, parser.getFastPathCount());
+
+        assertEquals(new BigDecimal("851042397"), parser.parsePrecise("1996-12-19T16:39:57-08:00"));
+        assertEquals(1, parser.getFallbackCount());
+    }
+
+    @Test(expected = ParseException.class)
+    public void parseFail() throws ParseException {
+        parser.parse("1996-12-19T16:39:57.123");
+    }
+}
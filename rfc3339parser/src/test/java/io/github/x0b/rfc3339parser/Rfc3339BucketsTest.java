@@ -0,0 +1,117 @@
+package io.github.x0b.rfc3339parser;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.text.ParseException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(JUnit4.class)
+public class Rfc3339BucketsTest {
+
+    private final Rfc3339Kernel kernel = new Rfc3339Kernel();
+
+    private long expected(String timeString, BucketUnit unit, int zoneOffsetMinutes) throws ParseException {
+        long millis = new Rfc3339Strict().parse(timeString).getTime() + zoneOffsetMinutes * 60000L;
+        long width = unit.minutes * 60000L;
+        return millis >= 0 ? millis / width : -((-millis + width - 1) / width);
+    }
+
+    @Test
+    public void bucketOf() throws ParseException {
+        String[] timeStrings = {
+                "1985-04-12T23:20:50.52Z", "1996-12-19T16:39:57-08:00", "1996-12-19T16:39:57+05:45",
+                "1969-12-31T23:59:59Z", "1970-01-01T00:30:00+01:00", "1937-01-01T12:00:27.87+00:20"
+        };
+        int[] zones = {0, 60, -480, 345, -1};
+        for (String timeString : timeStrings) {
+            for (BucketUnit unit : BucketUnit.values()) {
+                for (int zone : zones) {
+                    assertEquals(timeString + " " + unit + " " + zone,
+                            expected(timeString, unit, zone), kernel.bucketOf(timeString, unit, zone));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void bucketOfLeapSecond() throws ParseException {
+        String[] timeStrings = {
+                "2016-12-31T23:59:60Z", "2016-12-31T23:59:60.5Z", "2017-01-01T00:59:60+01:00",
+                "2016-12-31T18:00:00Z", "2017-01-01T06:00:00Z"
+        };
+        LeapSecondPolicy[] policies = {null, LeapSecondPolicy.ROLL, LeapSecondPolicy.CLAMP, LeapSecondPolicy.SMEAR};
+        for (LeapSecondPolicy policy : policies) {
+            kernel.setLeapSecondPolicy(policy);
+            for (String timeString : timeStrings) {
+                for (BucketUnit unit : BucketUnit.values()) {
+                    for (int zone : new int[]{0, 60, -1}) {
+                        long bucket = kernel.bucketOf(timeString, unit, zone);
+                        long width = unit.minutes * 60000L;
+                        assertEquals(timeString + " " + unit + " " + zone + " " + policy,
+                                Rfc3339Kernel.floorDiv(kernel.epochMilli() + zone * 60000L, width), bucket);
+                    }
+                }
+            }
+        }
+        kernel.setLeapSecondPolicy(null);
+        assertEquals(Rfc3339Kernel.epochDay(2017, 1, 1), kernel.bucketOf("2016-12-31T23:59:60Z", BucketUnit.DAY));
+        kernel.setLeapSecondPolicy(LeapSecondPolicy.CLAMP);
+        assertEquals(Rfc3339Kernel.epochDay(2016, 12, 31), kernel.bucketOf("2016-12-31T23:59:60Z", BucketUnit.DAY));
+    }
+
+    @Test(expected = Rfc3339Exception.class)
+    public void bucketOfFail() throws ParseException {
+        kernel.bucketOf("1996-12-19", BucketUnit.DAY);
+    }
+
+    @Test
+    public void bucketsOf() {
+        long[] buckets = new long[2];
+        assertEquals(1, kernel.bucketsOf(new String[]{"1970-01-02T01:00:00+02:00", "invalid"}, BucketUnit.HOUR, 0, buckets));
+        assertEquals(23L, buckets[0]);
+        assertEquals(Rfc3339Kernel.INVALID, buckets[1]);
+    }
+
+    @Test
+    public void histogram() {
+        String[] timeStrings = {
+                "2018-01-01T00:00:00Z", "2018-01-01T23:59:59Z", "2018-01-02T00:30:00+01:00",
+                "2018-01-02T12:00:00Z", "2017-12-31T23:59:59Z", "invalid"
+        };
+        long first = Rfc3339Kernel.epochDay(2018, 1, 1);
+        long[] counts = new long[2];
+        assertEquals(2, Rfc3339Buckets.histogram(timeStrings, BucketUnit.DAY, 0, first, counts));
+        assertArrayEquals(new long[]{3, 1}, counts);
+
+        // accumulates
+        assertEquals(2, Rfc3339Buckets.histogram(timeStrings, BucketUnit.DAY, 0, first, counts));
+        assertArrayEquals(new long[]{6, 2}, counts);
+    }
+
+    @Test
+    public void histogramParallel() {
+        Random random = new Random(3339);
+        String[] timeStrings = new String[40000];
+        for (int i = 0; i < timeStrings.length; i++) {
+            timeStrings[i] = String.format("2018-01-%02dT%02d:%02d:%02dZ",
+                    random.nextInt(31) + 1, random.nextInt(24), random.nextInt(60), random.nextInt(60));
+        }
+        long first = Rfc3339Kernel.epochDay(2018, 1, 1) * 24;
+        long[] sequential = new long[31 * 24];
+        long[] parallel = new long[31 * 24];
+        assertEquals(0, Rfc3339Buckets.histogram(timeStrings, BucketUnit.HOUR, 0, first, sequential));
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertEquals(0, Rfc3339Buckets.histogram(timeStrings, BucketUnit.HOUR, 0, first, parallel, pool));
+        } finally {
+            pool.shutdown();
+        }
+        assertArrayEquals(sequential, parallel);
+    }
+}
@@ -0,0 +1,136 @@
+package io.github.x0b.rfc3339parser;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.text.ParseException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(JUnit4.class)
+public class Rfc3339KernelTest {
+
+    private Rfc3339Kernel kernel;
+
+    @Before
+    public void setUp() {
+        kernel = new Rfc3339Kernel();
+    }
+
+    @Test
+    public void scanZulu() {
+        assertTrue(kernel.scan("1985-04-12T23:20:50Z"));
+        assertEquals(482196050L, kernel.epochSecond());
+        assertTrue(kernel.isZulu());
+        assertTrue(kernel.scan("1985-04-12t23:20:50.52z"));
+        assertEquals(482196050520L, kernel.epochMilli());
+        assertEquals(520000000, kernel.nanos());
+        assertEquals(2, kernel.fractionDigits());
+    }
+
+    @Test
+    public void scanOffset() {
+        assertTrue(kernel.scan("1996-12-19T16:39:57.123456789-08:00"));
+        assertEquals(851042397123L, kernel.epochMilli());
+        assertEquals(123456789, kernel.nanos());
+        assertEquals(-480, kernel.offsetMinutes());
+        assertFalse(kernel.isZulu());
+    }
+
+    @Test
+    public void scanRange() {
+        String buffer = "x1985-04-12T23:20:50Zx";
+        assertTrue(kernel.scan(buffer, 1, buffer.length() - 1));
+        assertEquals(482196050L, kernel.epochSecond());
+    }
+
+    @Test
+    public void scanMatchesStrict() throws ParseException {
+        String[] timeStrings = {
+                "1985-04-12T23:20:50Z", "1996-12-19T16:39:57.1-01:00", "2000-02-29T00:00:00Z",
+                "1900-02-29T00:00:00Z", "1996-12-19T16:39:57.123", "1996-12-19 16:39:57.123Z",
+                "1996-12-19T16:39:57.Z", "1996-12-19T16:39:57.123456-01:60", "1996-13-19T16:39:57Z",
+                "1996-12-19T24:39:57Z", "1996-12-19T16:39:57+01:30x", "2016-12-31T23:59:60Z"
+        };
+        Rfc3339Strict strict = new Rfc3339Strict();
+        for (String timeString : timeStrings) {
+            boolean valid = strict.isValid(timeString);
+            assertEquals(timeString, valid, kernel.scan(timeString));
+            if (valid) {
+                assertEquals(timeString, strict.parse(timeString).getTime(), kernel.epochMilli());
+            }
+        }
+
+        // the only difference: Rfc3339Strict accepts day 00
+        assertTrue(strict.isValid("2097-09-00T01:42:16Z"));
+        assertFalse(kernel.scan("2097-09-00T01:42:16Z"));
+    }
+
+    @Test
+    public void scanErrorOffset() {
+        assertFalse(kernel.scan("1996-12-19T16:39:57.123 01:00"));
+        assertEquals(23, kernel.errorOffset());
+        assertFalse(kernel.scan(null));
+        assertFalse(kernel.scan("1996-12-19"));
+    }
+
+    // Calendar switches to the Julian calendar before 1582, the kernel does not
+    @Test
+    public void scanProlepticGregorian() {
+        assertTrue(kernel.scan("0001-01-01T00:00:00Z"));
+        assertEquals(-62135596800L, kernel.epochSecond());
+    }
+
+    @Test
+    public void parseFullDate() throws ParseException {
+        assertEquals(0L, kernel.parseFullDate("1970-01-01"));
+        assertEquals(5580L, kernel.parseFullDate("1985-04-12"));
+        assertEquals(11016L, kernel.parseFullDate("2000-02-29"));
+        assertEquals(-1L, kernel.parseFullDate("1969-12-31"));
+    }
+
+    @Test(expected = Rfc3339Exception.class)
+    public void parseFullDateFail() throws ParseException {
+        kernel.parseFullDate("1900-02-29");
+    }
+
+    @Test
+    public void parseFullTime() throws ParseException {
+        assertEquals(84050520000000L, kernel.parseFullTime("23:20:50.52Z"));
+        assertEquals(0, kernel.offsetMinutes());
+        assertEquals(59997000000000L, kernel.parseFullTime("16:39:57-08:00"));
+        assertEquals(-480, kernel.offsetMinutes());
+        assertEquals(86400000000000L, kernel.parseFullTime("23:59:60Z"));
+    }
+
+    @Test(expected = Rfc3339Exception.class)
+    public void parseFullTimeFail() throws ParseException {
+        kernel.parseFullTime("16:39:57");
+    }
+
+    @Test
+    public void parseFullDates() {
+        CharSequence[] dates = {"1970-01-02", null, "1985-04-12T23:20:50Z", "1985-04-12"};
+        long[] epochDays = new long[dates.length];
+        assertEquals(2, kernel.parseFullDates(dates, epochDays));
+        assertEquals(1L, epochDays[0]);
+        assertEquals(Rfc3339Kernel.INVALID, epochDays[1]);
+        assertEquals(Rfc3339Kernel.INVALID, epochDays[2]);
+        assertEquals(5580L, epochDays[3]);
+    }
+
+    @Test
+    public void parseFullTimes() {
+        CharSequence[] times = {"00:00:01+01:00", "00:00:01"};
+        long[] nanosOfDay = new long[times.length];
+        int[] offsets = new int[times.length];
+        assertEquals(1, kernel.parseFullTimes(times, nanosOfDay, offsets));
+        assertEquals(1000000000L, nanosOfDay[0]);
+        assertEquals(60, offsets[0]);
+        assertEquals(Rfc3339Kernel.INVALID, nanosOfDay[1]);
+    }
+}
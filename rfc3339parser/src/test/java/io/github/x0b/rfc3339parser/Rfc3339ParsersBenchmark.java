@@ -0,0 +1,77 @@
+package io.github.x0b.rfc3339parser;
+
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.text.ParseException;
+
+/**
+ * Rough comparison of the "Zulu, millis only" parser against the general implementations. Not
+ * part of the regular test run, remove {@link Ignore} to execute.
+ */
+@Ignore("benchmark")
+@RunWith(JUnit4.class)
+public class Rfc3339ParsersBenchmark {
+
+    private static final int SIZE = 10000;
+    private static final int ROUNDS = 50;
+
+    private static String[] input() {
+        String[] timeStrings = new String[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            timeStrings[i] = String.format("2018-%02d-%02dT%02d:%02d:%02d.%03dZ",
+                    i % 12 + 1, i % 28 + 1, i % 24, i % 60, (i * 7) % 60, i % 1000);
+        }
+        return timeStrings;
+    }
+
+    @Test
+    public void zuluMillis() throws ParseException {
+        String[] timeStrings = input();
+        Rfc3339FastParser zuluMillis = Rfc3339Parsers.builder()
+                .offsetStyle(Rfc3339Parsers.OffsetStyle.ZULU)
+                .precision(Rfc3339Parsers.Precision.MILLIS)
+                .build();
+        Rfc3339FastParser configured = Rfc3339Parsers.builder().build();
+        Rfc3339Parser strict = new Rfc3339Strict();
+
+        long sum = 0;
+        for (int warmup = 0; warmup < 5; warmup++) {
+            long start = System.nanoTime();
+            for (int round = 0; round < ROUNDS; round++) {
+                for (String timeString : timeStrings) {
+                    sum += zuluMillis.parseEpochMilli(timeString);
+                }
+            }
+            report("zulu millis", start);
+
+            start = System.nanoTime();
+            for (int round = 0; round < ROUNDS; round++) {
+                for (String timeString : timeStrings) {
+                    sum += configured.parseEpochMilli(timeString);
+                }
+            }
+            report("kernel", start);
+
+            start = System.nanoTime();
+            for (int round = 0; round < ROUNDS / 10; round++) {
+                for (String timeString : timeStrings) {
+                    sum += strict.parse(timeString).getTime();
+                }
+            }
+            report("strict", start, ROUNDS / 10);
+        }
+        System.out.println(sum);
+    }
+
+    private static void report(String name, long start) {
+        report(name, start, ROUNDS);
+    }
+
+    private static void report(String name, long start, int rounds) {
+        double nanos = (System.nanoTime() - start) / (double) (rounds * SIZE);
+        System.out.println(String.format("%-12s %8.1f ns/op", name, nanos));
+    }
+}
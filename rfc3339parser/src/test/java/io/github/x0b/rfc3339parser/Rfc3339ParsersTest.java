@@ -0,0 +1,100 @@
+package io.github.x0b.rfc3339parser;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.math.BigDecimal;
+import java.text.ParseException;
+import java.util.Calendar;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(JUnit4.class)
+public class Rfc3339ParsersTest {
+
+    private static Rfc3339FastParser build(Rfc3339Parsers.Precision precision, Rfc3339Parsers.OffsetStyle offsetStyle, boolean caseSensitive) {
+        return Rfc3339Parsers.builder()
+                .precision(precision)
+                .offsetStyle(offsetStyle)
+                .caseSensitive(caseSensitive)
+                .build();
+    }
+
+    @Test
+    public void zuluMillis() throws ParseException {
+        Rfc3339FastParser parser = build(Rfc3339Parsers.Precision.MILLIS, Rfc3339Parsers.OffsetStyle.ZULU, false);
+        assertEquals(482196050520L, parser.parseEpochMilli("1985-04-12T23:20:50.520Z"));
+        assertEquals(482196050520L, parser.parseEpochMilli("1985-04-12t23:20:50.520z"));
+        assertEquals(482196050520L, parser.parse("1985-04-12T23:20:50.520Z").getTime());
+        assertFalse(parser.isValid("1985-04-12T23:20:50.52Z"));
+        assertFalse(parser.isValid("1985-04-12T23:20:50Z"));
+        assertFalse(parser.isValid("1985-04-12T23:20:50.520+00:00"));
+        assertFalse(parser.isValid("1985-02-29T23:20:50.520Z"));
+        assertFalse(parser.isValid("1985-04-12T23:20:50.5a0Z"));
+    }
+
+    @Test
+    public void zuluSeconds() throws ParseException {
+        Rfc3339FastParser parser = build(Rfc3339Parsers.Precision.SECONDS, Rfc3339Parsers.OffsetStyle.ZULU, true);
+        assertEquals(482196050000L, parser.parseEpochMilli("1985-04-12T23:20:50Z"));
+        assertFalse(parser.isValid("1985-04-12t23:20:50Z"));
+        assertFalse(parser.isValid("1985-04-12T23:20:50z"));
+        assertFalse(parser.isValid("1985-04-12T23:20:50.1Z"));
+        assertFalse(parser.isValid(null));
+    }
+
+    @Test
+    public void configured() throws ParseException {
+        Rfc3339FastParser parser = build(Rfc3339Parsers.Precision.ANY, Rfc3339Parsers.OffsetStyle.NUMERIC, true);
+        assertEquals(851008197123L, parser.parseEpochMilli("1996-12-19T16:39:57.123456+01:30"));
+        assertEquals(851042397000L, parser.parseEpochMilli("1996-12-19T16:39:57-08:00"));
+        assertFalse(parser.isValid("1985-04-12T23:20:50Z"));
+        assertFalse(parser.isValid("1996-12-19t16:39:57-08:00"));
+    }
+
+    @Test
+    public void matchesStrict() throws ParseException {
+        Rfc3339FastParser parser = Rfc3339Parsers.builder().build();
+        Rfc3339Parser strict = new Rfc3339Strict();
+        String timeString = "1996-12-19T16:39:57.123+01:30";
+        assertEquals(strict.parse(timeString), parser.parse(timeString));
+        assertEquals(strict.parsePrecise(timeString), parser.parsePrecise(timeString));
+        Calendar calendar = parser.parseCalendar(timeString);
+        assertEquals(strict.parseTimezone(timeString).getRawOffset(), calendar.getTimeZone().getRawOffset());
+        assertEquals(strict.parse(timeString), calendar.getTime());
+    }
+
+    @Test
+    public void parsePrecise() throws ParseException {
+        assertEquals(new BigDecimal("482196050"),
+                build(Rfc3339Parsers.Precision.SECONDS, Rfc3339Parsers.OffsetStyle.ZULU, false).parsePrecise("1985-04-12T23:20:50Z"));
+        assertEquals(new BigDecimal("482196050.520"),
+                build(Rfc3339Parsers.Precision.MILLIS, Rfc3339Parsers.OffsetStyle.ZULU, false).parsePrecise("1985-04-12T23:20:50.520Z"));
+        Rfc3339FastParser numeric = build(Rfc3339Parsers.Precision.ANY, Rfc3339Parsers.OffsetStyle.NUMERIC, false);
+        assertEquals(new BigDecimal("851042397"), numeric.parsePrecise("1996-12-19T16:39:57-08:00"));
+        assertEquals(new BigDecimal("851008197.123456789"), numeric.parsePrecise("1996-12-19T16:39:57.123456789+01:30"));
+    }
+
+    @Test
+    public void parseTimezone() throws ParseException {
+        Rfc3339FastParser parser = Rfc3339Parsers.builder().build();
+        assertEquals("UTC", build(Rfc3339Parsers.Precision.SECONDS, Rfc3339Parsers.OffsetStyle.ZULU, false)
+                .parseTimezone("1985-04-12T23:20:50Z").getID());
+        assertEquals(TimeZone.getTimeZone("GMT+01:30").getID(), parser.parseTimezone("1996-12-19T16:39:57+01:30").getID());
+        assertEquals("Etc/Unknown", parser.parseTimezone("1996-12-19T16:39:57-00:00").getID());
+    }
+
+    @Test(expected = ParseException.class)
+    public void parseFailConfiguration() throws ParseException {
+        build(Rfc3339Parsers.Precision.SECONDS, Rfc3339Parsers.OffsetStyle.ZULU, false).parse("1985-04-12T23:20:50+01:00");
+    }
+
+    @Test(expected = ParseException.class)
+    public void parseTimezoneFailConfiguration() throws ParseException {
+        build(Rfc3339Parsers.Precision.MILLIS, Rfc3339Parsers.OffsetStyle.ZULU, false).parseTimezone("1985-04-12T23:20:50Z");
+    }
+}
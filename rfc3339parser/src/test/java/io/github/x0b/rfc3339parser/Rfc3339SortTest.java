@@ -0,0 +1,89 @@
+package io.github.x0b.rfc3339parser;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(JUnit4.class)
+public class Rfc3339SortTest {
+
+    @Test
+    public void sortMixed() {
+        String[] timeStrings = {
+                "1996-12-19T16:39:57-08:00",
+                "invalid",
+                "1985-04-12T23:20:50.52Z",
+                "1996-12-20T00:39:57Z",
+                "1985-04-12T23:20:50.5Z",
+                null,
+                "1937-01-01T12:00:27.87+00:20"
+        };
+        int[] permutation = Rfc3339Sort.permutation(timeStrings, Rfc3339Sort.Invalid.LAST);
+        // equal instants keep their order
+        assertArrayEquals(new int[]{6, 4, 2, 0, 3, 1, 5}, permutation);
+
+        Rfc3339Sort.sort(timeStrings, Rfc3339Sort.Invalid.FIRST);
+        assertArrayEquals(new String[]{
+                "invalid",
+                null,
+                "1937-01-01T12:00:27.87+00:20",
+                "1985-04-12T23:20:50.5Z",
+                "1985-04-12T23:20:50.52Z",
+                "1996-12-19T16:39:57-08:00",
+                "1996-12-20T00:39:57Z"
+        }, timeStrings);
+    }
+
+    @Test
+    public void sortEmpty() {
+        assertEquals(0, Rfc3339Sort.permutation(new String[0], Rfc3339Sort.Invalid.LAST).length);
+    }
+
+    @Test
+    public void sortParallel() {
+        Random random = new Random(3339);
+        String[] timeStrings = new String[50000];
+        for (int i = 0; i < timeStrings.length; i++) {
+            timeStrings[i] = String.format("%04d-%02d-%02dT%02d:%02d:%02d.%d%s",
+                    random.nextInt(10000), random.nextInt(12) + 1, random.nextInt(28) + 1,
+                    random.nextInt(24), random.nextInt(60), random.nextInt(61), random.nextInt(1000),
+                    random.nextBoolean() ? "Z" : String.format("+%02d:%02d", random.nextInt(24), random.nextInt(60)));
+        }
+        timeStrings[42] = "1996-12-19T16:39:57";
+
+        final Rfc3339Kernel kernel = new Rfc3339Kernel();
+        List<String> expected = new ArrayList<>(Arrays.asList(timeStrings));
+        expected.remove(42);
+        Collections.sort(expected, new Comparator<String>() {
+            @Override
+            public int compare(String a, String b) {
+                kernel.scan(a);
+                long secondsA = kernel.epochSecond();
+                int nanosA = kernel.nanos();
+                kernel.scan(b);
+                int cmp = Long.compare(secondsA, kernel.epochSecond());
+                return cmp != 0 ? cmp : Integer.compare(nanosA, kernel.nanos());
+            }
+        });
+        expected.add(0, "1996-12-19T16:39:57");
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Rfc3339Sort.sort(timeStrings, Rfc3339Sort.Invalid.FIRST, pool);
+        } finally {
+            pool.shutdown();
+        }
+        assertArrayEquals(expected.toArray(), timeStrings);
+    }
+}
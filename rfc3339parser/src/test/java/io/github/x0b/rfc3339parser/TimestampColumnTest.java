@@ -0,0 +1,181 @@
+package io.github.x0b.rfc3339parser;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(JUnit4.class)
+public class TimestampColumnTest {
+
+    private static final long START = 851042397000L;
+
+    private static TimestampColumn fill(boolean direct, int count) {
+        TimestampColumn column = new TimestampColumn(direct);
+        for (int i = 0; i < count; i++) {
+            // mostly regular, with a few jumps backwards and offset changes
+            long value = START + i * 1000L - (i % 7 == 0 ? 500000L : 0);
+            column.append(value, i % 100 == 0 ? -480 : 60);
+        }
+        return column;
+    }
+
+    @Test
+    public void randomAccess() {
+        TimestampColumn column = fill(false, 3000);
+        assertEquals(3000, column.size());
+        assertEquals(3, column.blockCount());
+        assertEquals(START - 500000L, column.epochMilli(0));
+        assertEquals(-480, column.offsetMinutes(0));
+        assertEquals(START + 2999 * 1000L, column.epochMilli(2999));
+        assertEquals(60, column.offsetMinutes(2999));
+        assertEquals(START + 1025 * 1000L, column.epochMilli(1025));
+    }
+
+    @Test
+    public void cursor() {
+        TimestampColumn column = fill(true, 2500);
+        assertTrue(column.isDirect());
+        TimestampColumn.Cursor cursor = column.cursor();
+        for (int i = 0; i < 2500; i++) {
+            assertTrue(cursor.next());
+            assertEquals(START + i * 1000L - (i % 7 == 0 ? 500000L : 0), cursor.epochMilli());
+        }
+        assertFalse(cursor.next());
+    }
+
+    @Test
+    public void compact() {
+        TimestampColumn column = new TimestampColumn();
+        for (int i = 0; i < 10000; i++) {
+            column.append(START + i * 1000L, 0);
+        }
+        assertTrue(column.encodedBytes() < 10000 * 2 + 100);
+    }
+
+    @Test
+    public void blockRange() {
+        TimestampColumn column = fill(false, 3000);
+        assertEquals(START - 500000L, column.blockMin(0));
+        assertEquals(START + 1023 * 1000L, column.blockMax(0));
+        long from = START + 1000 * 1000L;
+        long to = START + 2000 * 1000L;
+        int expected = 0;
+        for (int i = 0; i < column.size(); i++) {
+            long value = column.epochMilli(i);
+            if (value >= from && value < to) {
+                expected++;
+            }
+        }
+        assertEquals(expected, column.countBetween(from, to));
+        assertEquals(3000, column.countBetween(Long.MIN_VALUE, Long.MAX_VALUE));
+        assertEquals(0, column.countBetween(0, START - 500000L));
+    }
+
+    @Test
+    public void appendParsed() throws Rfc3339Exception {
+        TimestampColumn column = new TimestampColumn();
+        column.appendAll(Arrays.asList("1985-04-12T23:20:50Z", "1996-12-19T16:39:57.123+01:30"));
+        assertEquals(482196050000L, column.epochMilli(0));
+        assertEquals(851008197123L, column.epochMilli(1));
+        assertEquals(90, column.offsetMinutes(1));
+    }
+
+    @Test(expected = Rfc3339Exception.class)
+    public void appendInvalid() throws Rfc3339Exception {
+        new TimestampColumn().append("1996-12-19T16:39:57.123");
+    }
+
+    @Test
+    public void serialize() throws IOException {
+        TimestampColumn column = fill(true, 2100);
+        File file = File.createTempFile("column", ".bin");
+        try {
+            RandomAccessFile out = new RandomAccessFile(file, "rw");
+            try {
+                column.writeTo(out.getChannel());
+            } finally {
+                out.close();
+            }
+            RandomAccessFile in = new RandomAccessFile(file, "r");
+            TimestampColumn read;
+            try {
+                FileChannel channel = in.getChannel();
+                read = TimestampColumn.readFrom(channel, false);
+            } finally {
+                in.close();
+            }
+            assertEquals(column.size(), read.size());
+            assertEquals(column.encodedBytes(), read.encodedBytes());
+            for (int i = 0; i < column.size(); i++) {
+                assertEquals(column.epochMilli(i), read.epochMilli(i));
+                assertEquals(column.offsetMinutes(i), read.offsetMinutes(i));
+            }
+            read.append(START, 0);
+            assertEquals(START, read.epochMilli(2100));
+        } finally {
+            assertTrue(file.delete());
+        }
+    }
+
+    @Test
+    public void grow() {
+        assertEquals(8192, TimestampColumn.grow(4096, 4090, 20));
+        assertEquals(TimestampColumn.MAX_CAPACITY, TimestampColumn.grow(1 << 30, (1 << 30) - 10, 20));
+        assertEquals(TimestampColumn.MAX_CAPACITY, TimestampColumn.grow(TimestampColumn.MAX_CAPACITY - 100, TimestampColumn.MAX_CAPACITY - 110, 20));
+        try {
+            TimestampColumn.grow(TimestampColumn.MAX_CAPACITY, TimestampColumn.MAX_CAPACITY - 10, 20);
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    private static ByteBuffer serialized(TimestampColumn column) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        column.writeTo(Channels.newChannel(out));
+        return ByteBuffer.wrap(out.toByteArray());
+    }
+
+    private static void assertCorrupt(ByteBuffer serialized) {
+        try {
+            TimestampColumn.readFrom(Channels.newChannel(new ByteArrayInputStream(serialized.array())), false);
+            fail();
+        } catch (IOException expected) {
+        }
+    }
+
+    @Test
+    public void readCorrupt() throws IOException {
+        TimestampColumn column = fill(false, 2100);
+
+        // size beyond the encoded data
+        ByteBuffer bytes = serialized(column);
+        assertCorrupt(bytes.putInt(8, 1 << 20));
+
+        // block position beyond the encoded data
+        bytes = serialized(column);
+        assertCorrupt(bytes.putInt(40 + 20, column.encodedBytes()));
+
+        // block positions out of order
+        bytes = serialized(column);
+        assertCorrupt(bytes.putInt(40 + 40, bytes.getInt(40 + 20) - 1));
+
+        // first block not at the start
+        bytes = serialized(column);
+        assertCorrupt(bytes.putInt(40, 1));
+    }
+}